@@ -0,0 +1,191 @@
+package io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Objects;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Output stream that hands the bytes written to a background thread, which
+ * writes them to the sink.
+ *
+ * <p>
+ * Bytes are copied into a preallocated ring buffer shared by the producer,
+ * the thread calling {@code write}, and the writer thread. Each side only
+ * advances its own counter, published through a volatile field, so no lock
+ * is taken: the producer returns as soon as its bytes are in the ring, and
+ * the writer drains whatever is there with as few and as large writes as
+ * the wrap-around allows. A slow sink thus delays the producer only when the
+ * ring is full; the producer then either parks until the writer frees room
+ * or spins, if it would rather burn a core than pay for the wake-up.
+ *
+ * <p>
+ * {@link #flush} waits until the writer has written every byte written
+ * before it, and is the point where an {@code IOException} thrown by the
+ * sink is reported. There must be a single producer at a time.
+ *
+ * @author pedro
+ */
+final class AsyncOutputStream extends OutputStream {
+
+    private final OutputStream sink;
+    private final byte[] ring;
+    private final boolean spin;
+    private final Thread writer;
+
+    /* bytes ever written by the producer, and by the writer to the sink */
+    private volatile long produced;
+    private volatile long consumed;
+
+    /* set by a side before it parks, so that the other side unparks it */
+    private volatile Thread parkedProducer;
+    private volatile boolean writerParked;
+
+    private volatile boolean closed;
+    private volatile IOException error;
+
+    /**
+     * Constructs a stream writing to the specified sink through a ring buffer
+     * of the specified capacity, and starts its writer thread.
+     *
+     * @param sink the stream to write to
+     * @param capacity the capacity of the ring buffer in bytes
+     * @param spin whether a producer finding the ring full spins instead of
+     * parking
+     * @throws IllegalArgumentException if capacity is not positive
+     */
+    AsyncOutputStream(OutputStream sink, int capacity, boolean spin) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity:" + capacity);
+        }
+        this.sink = sink;
+        this.ring = new byte[capacity];
+        this.spin = spin;
+        this.writer = new Thread(this::drain, "io-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Body of the writer thread.
+     */
+    private void drain() {
+        long read = consumed;
+        while (true) {
+            long available = produced - read;
+            if (available == 0) {
+                if (closed) {
+                    return;
+                }
+                writerParked = true;
+                if (produced == read && !closed) {
+                    LockSupport.park(this);
+                }
+                writerParked = false;
+                continue;
+            }
+            int at = (int) (read % ring.length);
+            int n = (int) Math.min(available, ring.length - at);
+            try {
+                sink.write(ring, at, n);
+            } catch (IOException e) {
+                // bytes are dropped from now on, as PrintStream would
+                error = e;
+            }
+            read += n;
+            consumed = read;
+            Thread p = parkedProducer;
+            if (p != null) {
+                LockSupport.unpark(p);
+            }
+        }
+    }
+
+    /**
+     * Waits, parking or spinning, until the writer has written at least
+     * {@code target} bytes in all.
+     */
+    private void await(long target) throws IOException {
+        while (consumed < target) {
+            if (!writer.isAlive()) {
+                throw new IOException("Stream closed");
+            }
+            if (spin) {
+                Thread.onSpinWait();
+                continue;
+            }
+            parkedProducer = Thread.currentThread();
+            if (consumed < target) {
+                LockSupport.park(this);
+            }
+            parkedProducer = null;
+        }
+    }
+
+    private void wakeWriter() {
+        if (writerParked) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, b.length);
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        long written = produced;
+        while (len > 0) {
+            // wait for room for at least one byte
+            await(written - ring.length + 1);
+            int at = (int) (written % ring.length);
+            int n = (int) Math.min(len, Math.min(ring.length - (written - consumed), ring.length - at));
+            System.arraycopy(b, off, ring, at, n);
+            off += n;
+            len -= n;
+            written += n;
+            produced = written;
+            wakeWriter();
+        }
+    }
+
+    /**
+     * Waits until every byte written so far has been written to the sink,
+     * and flushes it.
+     *
+     * @throws IOException if the sink has thrown one
+     */
+    @Override
+    public void flush() throws IOException {
+        long written = produced;
+        wakeWriter();
+        await(written);
+        IOException e = error;
+        if (e != null) {
+            throw e;
+        }
+        sink.flush();
+    }
+
+    /**
+     * Flushes the stream, stops the writer thread and closes the sink.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            flush();
+        } finally {
+            closed = true;
+            LockSupport.unpark(writer);
+            sink.close();
+        }
+    }
+}
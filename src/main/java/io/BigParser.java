@@ -0,0 +1,141 @@
+package io;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * Accumulates the digits of an integer of any length and converts them to a
+ * {@code BigInteger} in subquadratic time.
+ *
+ * <p>
+ * Digits are packed as they arrive into limbs holding as many digits as fit
+ * in a {@code long}, which takes less memory than the text they come from.
+ * The limbs are then combined divide and conquer: the value of a run of limbs
+ * is the value of its upper part times a power of the radix plus the value of
+ * its lower part. The lower part always has a power of two limbs, so the
+ * powers needed are obtained by repeated squaring. With the Karatsuba and
+ * Toom-Cook multiplication of {@code BigInteger}, the conversion takes
+ * O(M(n) log n) time, where the {@code BigInteger(String)} constructor takes
+ * O(n<sup>2</sup>).
+ *
+ * @author pedro
+ */
+final class BigParser {
+
+    /* runs of at most this many limbs are combined one by one */
+    private static final int THRESHOLD = 16;
+
+    private final int radix;
+    private final int limbDigits;
+
+    /* log2(radix) if the radix is a power of two, 0 otherwise */
+    private final int bits;
+
+    private long[] limbs = new long[16];
+    private int size;
+
+    /* the digits not yet packed into a limb */
+    private long partial;
+    private int partialDigits;
+
+    private long digits;
+
+    /* powers[j] is radix^(limbDigits * 2^j) */
+    private BigInteger[] powers;
+
+    /**
+     * Constructs an empty accumulator of digits in the specified radix.
+     *
+     * @param radix the radix of the digits
+     */
+    BigParser(int radix) {
+        this.radix = radix;
+        int k = 0;
+        for (long p = 1; p <= Long.MAX_VALUE / radix; p *= radix) {
+            k++;
+        }
+        this.limbDigits = k;
+        this.bits = Integer.bitCount(radix) == 1 ? Integer.numberOfTrailingZeros(radix) : 0;
+    }
+
+    /**
+     * Appends a digit, which must be less than the radix.
+     *
+     * @param d the digit value
+     */
+    void add(int d) {
+        partial = partial * radix + d;
+        digits++;
+        if (++partialDigits == limbDigits) {
+            if (size == limbs.length) {
+                limbs = Arrays.copyOf(limbs, 2 * size);
+            }
+            limbs[size++] = partial;
+            partial = 0;
+            partialDigits = 0;
+        }
+    }
+
+    /**
+     * Returns the number of digits appended so far.
+     *
+     * @return the number of digits
+     */
+    long digits() {
+        return digits;
+    }
+
+    /**
+     * Returns the value of the digits appended so far.
+     *
+     * @return the value of the digits
+     */
+    BigInteger value() {
+        if (size == 0) {
+            return BigInteger.valueOf(partial);
+        }
+        BigInteger v = combine(0, size);
+        if (partialDigits > 0) {
+            v = bits > 0 ? v.shiftLeft(bits * partialDigits)
+                    : v.multiply(BigInteger.valueOf(radix).pow(partialDigits));
+            v = v.add(BigInteger.valueOf(partial));
+        }
+        return v;
+    }
+
+    /**
+     * Returns the value of the limbs from {@code lo} to {@code hi}.
+     */
+    private BigInteger combine(int lo, int hi) {
+        int n = hi - lo;
+        if (n <= THRESHOLD) {
+            BigInteger v = BigInteger.valueOf(limbs[lo]);
+            for (int i = lo + 1; i < hi; i++) {
+                v = shift(v, 0).add(BigInteger.valueOf(limbs[i]));
+            }
+            return v;
+        }
+        int j = 31 - Integer.numberOfLeadingZeros(n - 1);
+        int half = 1 << j;
+        return shift(combine(lo, hi - half), j).add(combine(hi - half, hi));
+    }
+
+    /**
+     * Returns {@code v} times radix^(limbDigits * 2^j).
+     */
+    private BigInteger shift(BigInteger v, int j) {
+        if (bits > 0) {
+            return v.shiftLeft(bits * limbDigits << j);
+        }
+        if (powers == null) {
+            powers = new BigInteger[32];
+            powers[0] = BigInteger.valueOf(radix).pow(limbDigits);
+        }
+        for (int i = 1; i <= j && powers[j] == null; i++) {
+            if (powers[i] == null) {
+                powers[i] = powers[i - 1].multiply(powers[i - 1]);
+            }
+        }
+        return v.multiply(powers[j]);
+    }
+}
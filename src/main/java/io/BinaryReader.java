@@ -0,0 +1,409 @@
+package io;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.InputMismatchException;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Reader of binary data, such as arrays of primitive values written by a C
+ * program, from the same buffer as the text methods of a {@link FastInput}.
+ *
+ * <p>
+ * A reader is obtained from {@link io#binary(ByteOrder)} for standard input,
+ * or from {@link FastInput#binary(ByteOrder)} for any other input; the
+ * {@code LE} methods of {@link io}, such as {@link io#readIntLE()}, read
+ * standard input with a little-endian one. Values are read in the byte order
+ * of the reader straight from the input buffer, or from the mapped file, and
+ * the array methods copy as many values at a time as the buffer holds,
+ * through a view of the buffer with that byte order, so that reading an
+ * array is a memory copy rather than a loop over its values.
+ *
+ * <pre>{@code
+ * BinaryReader in = io.binary(ByteOrder.LITTLE_ENDIAN);
+ * int n = in.readInt();
+ * double[] samples = in.readDoubles(new double[n], 0, n);
+ * }</pre>
+ *
+ * <p>
+ * Fixed-width records are read with {@link #nextRecord(int)}, and the
+ * variable-length integers of Protocol Buffers and similar formats with
+ * {@link #readVarint()}, {@link #readVarlong()} and their ZigZag-encoded
+ * signed forms.
+ *
+ * <p>
+ * Text and binary data can be mixed in the same input, since both readers
+ * consume the same buffer. This class is not thread-safe.
+ *
+ * @author pedro
+ */
+public final class BinaryReader {
+
+    private final FastInput in;
+    private ByteOrder order;
+
+    /* whether values must be byte-swapped, since buffers are big-endian */
+    private boolean swap;
+
+    BinaryReader(FastInput in, ByteOrder order) {
+        this.in = in;
+        order(order);
+    }
+
+    /**
+     * Returns the byte order of the values read.
+     */
+    public ByteOrder order() {
+        return order;
+    }
+
+    /**
+     * Sets the byte order of the values read.
+     *
+     * @param order the new byte order
+     * @return this reader
+     */
+    public BinaryReader order(ByteOrder order) {
+        this.order = Objects.requireNonNull(order);
+        this.swap = order == ByteOrder.LITTLE_ENDIAN;
+        return this;
+    }
+
+    /**
+     * Returns the index in the input buffer of the next {@code n} bytes,
+     * reading more input if fewer are buffered.
+     *
+     * @throws NoSuchElementException if the input ends before
+     */
+    private int require(int n) {
+        while (in.limit() - in.offset() < n) {
+            if (!in.refill()) {
+                throw new NoSuchElementException("End of input");
+            }
+        }
+        return in.offset();
+    }
+
+    /**
+     * Returns true if the input has at least one more byte.
+     *
+     * @throws IllegalStateException if the input is closed
+     */
+    public boolean hasRemaining() {
+        return in.limit() > in.offset() || in.refill();
+    }
+
+    /**
+     * Reads one byte.
+     *
+     * @throws NoSuchElementException if the input is exhausted
+     * @throws IllegalStateException if the input is closed
+     */
+    public byte readByte() {
+        int i = require(1);
+        in.consume(i + 1);
+        return in.buffer().get(i);
+    }
+
+    /**
+     * Reads a {@code short} value of two bytes.
+     *
+     * @throws NoSuchElementException if the input has fewer bytes
+     * @throws IllegalStateException if the input is closed
+     */
+    public short readShort() {
+        int i = require(Short.BYTES);
+        short v = in.buffer().getShort(i);
+        in.consume(i + Short.BYTES);
+        return swap ? Short.reverseBytes(v) : v;
+    }
+
+    /**
+     * Reads an {@code int} value of four bytes.
+     *
+     * @throws NoSuchElementException if the input has fewer bytes
+     * @throws IllegalStateException if the input is closed
+     */
+    public int readInt() {
+        int i = require(Integer.BYTES);
+        int v = in.buffer().getInt(i);
+        in.consume(i + Integer.BYTES);
+        return swap ? Integer.reverseBytes(v) : v;
+    }
+
+    /**
+     * Reads a {@code long} value of eight bytes.
+     *
+     * @throws NoSuchElementException if the input has fewer bytes
+     * @throws IllegalStateException if the input is closed
+     */
+    public long readLong() {
+        int i = require(Long.BYTES);
+        long v = in.buffer().getLong(i);
+        in.consume(i + Long.BYTES);
+        return swap ? Long.reverseBytes(v) : v;
+    }
+
+    /**
+     * Reads a {@code float} value of four bytes, in IEEE 754 format.
+     *
+     * @throws NoSuchElementException if the input has fewer bytes
+     * @throws IllegalStateException if the input is closed
+     */
+    public float readFloat() {
+        return Float.intBitsToFloat(readInt());
+    }
+
+    /**
+     * Reads a {@code double} value of eight bytes, in IEEE 754 format.
+     *
+     * @throws NoSuchElementException if the input has fewer bytes
+     * @throws IllegalStateException if the input is closed
+     */
+    public double readDouble() {
+        return Double.longBitsToDouble(readLong());
+    }
+
+    /**
+     * Returns a view of the buffered input from the next byte on, with the
+     * byte order of this reader, after reading more input if fewer than
+     * {@code size} bytes are buffered.
+     */
+    private ByteBuffer bulk(int size) {
+        int i = require(size);
+        return in.buffer().duplicate().position(i).limit(in.limit()).order(order);
+    }
+
+    /**
+     * Reads {@code len} bytes into {@code a}, starting at index {@code off}.
+     * If the input ends before, the bytes read are stored and consumed.
+     *
+     * @return the array {@code a}
+     * @throws IndexOutOfBoundsException if off and len are out of the
+     * bounds of {@code a}
+     * @throws NoSuchElementException if the input has fewer bytes
+     * @throws IllegalStateException if the input is closed
+     */
+    public byte[] readBytes(byte[] a, int off, int len) {
+        Objects.checkFromIndexSize(off, len, a.length);
+        for (int end = off + len; off < end;) {
+            ByteBuffer b = bulk(1);
+            int n = Math.min(end - off, b.remaining());
+            b.get(a, off, n);
+            in.consume(b.position());
+            off += n;
+        }
+        return a;
+    }
+
+    /**
+     * Reads {@code len} values of four bytes into {@code a}, starting at
+     * index {@code off}. If the input ends before, the values read are stored
+     * and consumed.
+     *
+     * @return the array {@code a}
+     * @throws IndexOutOfBoundsException if off and len are out of the
+     * bounds of {@code a}
+     * @throws NoSuchElementException if the input has fewer bytes
+     * @throws IllegalStateException if the input is closed
+     */
+    public int[] readInts(int[] a, int off, int len) {
+        Objects.checkFromIndexSize(off, len, a.length);
+        for (int end = off + len; off < end;) {
+            ByteBuffer b = bulk(Integer.BYTES);
+            int n = Math.min(end - off, b.remaining() / Integer.BYTES);
+            b.asIntBuffer().get(a, off, n);
+            in.consume(b.position() + n * Integer.BYTES);
+            off += n;
+        }
+        return a;
+    }
+
+    /**
+     * Reads {@code len} values of eight bytes into {@code a}, starting at
+     * index {@code off}.
+     *
+     * @see #readInts(int[], int, int)
+     */
+    public long[] readLongs(long[] a, int off, int len) {
+        Objects.checkFromIndexSize(off, len, a.length);
+        for (int end = off + len; off < end;) {
+            ByteBuffer b = bulk(Long.BYTES);
+            int n = Math.min(end - off, b.remaining() / Long.BYTES);
+            b.asLongBuffer().get(a, off, n);
+            in.consume(b.position() + n * Long.BYTES);
+            off += n;
+        }
+        return a;
+    }
+
+    /**
+     * Reads {@code len} {@code float} values of four bytes into {@code a},
+     * starting at index {@code off}.
+     *
+     * @see #readInts(int[], int, int)
+     */
+    public float[] readFloats(float[] a, int off, int len) {
+        Objects.checkFromIndexSize(off, len, a.length);
+        for (int end = off + len; off < end;) {
+            ByteBuffer b = bulk(Float.BYTES);
+            int n = Math.min(end - off, b.remaining() / Float.BYTES);
+            b.asFloatBuffer().get(a, off, n);
+            in.consume(b.position() + n * Float.BYTES);
+            off += n;
+        }
+        return a;
+    }
+
+    /**
+     * Reads {@code len} {@code double} values of eight bytes into {@code a},
+     * starting at index {@code off}.
+     *
+     * @see #readInts(int[], int, int)
+     */
+    public double[] readDoubles(double[] a, int off, int len) {
+        Objects.checkFromIndexSize(off, len, a.length);
+        for (int end = off + len; off < end;) {
+            ByteBuffer b = bulk(Double.BYTES);
+            int n = Math.min(end - off, b.remaining() / Double.BYTES);
+            b.asDoubleBuffer().get(a, off, n);
+            in.consume(b.position() + n * Double.BYTES);
+            off += n;
+        }
+        return a;
+    }
+
+    /**
+     * Reads a variable-length {@code int}, seven bits per byte from the least
+     * significant ones, each byte but the last with its high bit set, as
+     * written by Protocol Buffers for an {@code int32} or {@code uint32}. As
+     * there, a negative value may take ten bytes, and only the low 32 bits of
+     * the value read are kept. The byte order of this reader does not apply.
+     *
+     * @throws InputMismatchException if the value has more than ten bytes
+     * @throws NoSuchElementException if the input ends within the value
+     * @throws IllegalStateException if the input is closed
+     */
+    public int readVarint() {
+        return (int) readVarlong();
+    }
+
+    /**
+     * Reads a variable-length {@code long} of one to ten bytes, as written by
+     * Protocol Buffers for an {@code int64} or {@code uint64}.
+     *
+     * @throws InputMismatchException if the value has more than ten bytes
+     * @throws NoSuchElementException if the input ends within the value
+     * @throws IllegalStateException if the input is closed
+     * @see #readVarint()
+     */
+    public long readVarlong() {
+        int i = in.offset();
+        int start = i;
+        long v = 0;
+        for (int shift = 0;; shift += 7) {
+            if (i - start == 10) {
+                throw new InputMismatchException("Malformed varint");
+            }
+            if (i == in.limit()) {
+                int k = i - start;
+                boolean more = in.refill();
+                start = in.offset();
+                i = start + k;
+                if (!more) {
+                    throw new NoSuchElementException("End of input");
+                }
+            }
+            int b = in.buffer().get(i++);
+            v |= (long) (b & 0x7f) << shift;
+            if (b >= 0) {
+                in.consume(i);
+                return v;
+            }
+        }
+    }
+
+    /**
+     * Reads a variable-length signed {@code int}, ZigZag-encoded so that
+     * values of small magnitude take few bytes, as written by Protocol
+     * Buffers for an {@code sint32}.
+     *
+     * @throws InputMismatchException if the value has more than ten bytes
+     * @throws NoSuchElementException if the input ends within the value
+     * @throws IllegalStateException if the input is closed
+     * @see #readVarint()
+     */
+    public int readSignedVarint() {
+        int v = readVarint();
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    /**
+     * Reads a variable-length signed {@code long}, ZigZag-encoded, as written
+     * by Protocol Buffers for an {@code sint64}.
+     *
+     * @throws InputMismatchException if the value has more than ten bytes
+     * @throws NoSuchElementException if the input ends within the value
+     * @throws IllegalStateException if the input is closed
+     * @see #readSignedVarint()
+     */
+    public long readSignedVarlong() {
+        long v = readVarlong();
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    /**
+     * Returns a view of the next {@code width} bytes, as a fixed-width
+     * record, and consumes them. The view is read-only, has the byte order
+     * of this reader, and is indexed from 0 to {@code width}, so the fields
+     * of the record are read with absolute methods such as
+     * {@link ByteBuffer#getInt(int)}. It shows the input buffer itself, and
+     * is only valid until the next call to a method that reads input.
+     *
+     * <pre>{@code
+     * while (in.hasRemaining()) {
+     *     ByteBuffer r = in.nextRecord(16);
+     *     long id = r.getLong(0);
+     *     double price = r.getDouble(8);
+     * }
+     * }</pre>
+     *
+     * @param width the size of the record in bytes
+     * @return a view of the record
+     * @throws IllegalArgumentException if width is negative
+     * @throws NoSuchElementException if the input has fewer bytes
+     * @throws IllegalStateException if the input is closed
+     */
+    public ByteBuffer nextRecord(int width) {
+        if (width < 0) {
+            throw new IllegalArgumentException("width:" + width);
+        }
+        int i = require(width);
+        ByteBuffer r = in.buffer().asReadOnlyBuffer().position(i).limit(i + width).slice().order(order);
+        in.consume(i + width);
+        return r;
+    }
+
+    /**
+     * Skips the next {@code n} bytes, or the rest of the input if it has
+     * fewer.
+     *
+     * @param n the number of bytes to skip
+     * @return the number of bytes skipped
+     * @throws IllegalArgumentException if n is negative
+     * @throws IllegalStateException if the input is closed
+     */
+    public long skip(long n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("n:" + n);
+        }
+        long skipped = 0;
+        while (skipped < n && hasRemaining()) {
+            int k = (int) Math.min(n - skipped, in.limit() - in.offset());
+            in.consume(in.offset() + k);
+            skipped += k;
+        }
+        return skipped;
+    }
+}
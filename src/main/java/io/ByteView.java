@@ -0,0 +1,327 @@
+package io;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Objects;
+
+/**
+ * A read-only view of a range of the input, returned by
+ * {@link io#nextView()} and {@link io#nextLineView()}.
+ *
+ * <p>
+ * A view refers to the bytes of the token or line in the input buffer, so
+ * reading it creates no {@code String} and copies nothing. The view is
+ * reused: it is only valid until the next call to a method that reads
+ * input, after which it may show other bytes. Code that needs the text
+ * longer should keep {@link #toString()}.
+ *
+ * <p>
+ * As a {@code CharSequence}, the view has one character per byte, read as
+ * Latin-1, which for ASCII text gives the characters of the input. Other
+ * text is decoded correctly only by {@code toString()}, with the charset of
+ * the input. The comparison and hashing methods are those of a
+ * {@code String} holding the characters of the view.
+ *
+ * <p>
+ * The parsing methods accept what a {@code Scanner} would, which is less
+ * than the methods of {@code Integer}, {@code Long} and {@code Double}
+ * accept. {@link #parseInt()} and {@link #parseLong()} take an optional sign
+ * and ASCII decimal digits, where {@link Integer#parseInt(String)} also
+ * takes digits of other scripts. {@link #parseDouble()} takes no leading or
+ * trailing whitespace and no {@code d} or {@code f} type suffix, which
+ * {@link Double#parseDouble(String)} ignores, and a hexadecimal number only
+ * with a point and a binary exponent, as in {@code 0x1.8p1}. For the values
+ * they accept, the results are the same.
+ *
+ * <pre>{@code
+ * while (io.hasNextLine()) {
+ *     ByteView line = io.nextLineView();
+ *     if (line.startsWith("ERROR")) {
+ *         errors += line.parseLong(line.indexOf(' ') + 1, line.length());
+ *     }
+ * }
+ * }</pre>
+ *
+ * <p>
+ * As with {@link ByteBuffer}, {@code equals} and {@code hashCode} depend on
+ * the current content, so a view should not be used as a key in a map.
+ *
+ * @author pedro
+ */
+public final class ByteView implements CharSequence, Comparable<CharSequence> {
+
+    private final Charset charset;
+
+    private ByteBuffer buf;
+    private int from;
+    private int to;
+
+    ByteView(Charset charset) {
+        this.charset = charset;
+    }
+
+    /**
+     * Makes this view show the bytes of {@code buf} from {@code from} to
+     * {@code to}.
+     */
+    ByteView set(ByteBuffer buf, int from, int to) {
+        this.buf = buf;
+        this.from = from;
+        this.to = to;
+        return this;
+    }
+
+    /**
+     * Returns a view of the bytes of the specified string, for input read
+     * through a {@code Scanner}.
+     */
+    static ByteView of(String s, Charset charset) {
+        byte[] b = s.getBytes(charset);
+        return new ByteView(charset).set(ByteBuffer.wrap(b), 0, b.length);
+    }
+
+    /**
+     * Returns the number of bytes of this view.
+     */
+    @Override
+    public int length() {
+        return to - from;
+    }
+
+    /**
+     * Returns the byte at the specified index.
+     *
+     * @param index the index of the byte
+     * @return the byte
+     * @throws IndexOutOfBoundsException if index is negative or not less
+     * than {@code length()}
+     */
+    public byte byteAt(int index) {
+        Objects.checkIndex(index, to - from);
+        return buf.get(from + index);
+    }
+
+    /**
+     * Returns the byte at the specified index, as a Latin-1 character.
+     *
+     * @throws IndexOutOfBoundsException if index is negative or not less
+     * than {@code length()}
+     */
+    @Override
+    public char charAt(int index) {
+        return (char) (byteAt(index) & 0xff);
+    }
+
+    /**
+     * Returns a new view of a range of this view, valid as long as this one.
+     *
+     * @throws IndexOutOfBoundsException if start or end are negative, end is
+     * greater than {@code length()}, or start is greater than end
+     */
+    @Override
+    public ByteView subSequence(int start, int end) {
+        Objects.checkFromToIndex(start, end, to - from);
+        return new ByteView(charset).set(buf, from + start, from + end);
+    }
+
+    /**
+     * Returns the index of the first occurrence of the specified character
+     * in this view, or -1 if it does not occur.
+     */
+    public int indexOf(int ch) {
+        return indexOf(ch, 0);
+    }
+
+    /**
+     * Returns the index of the first occurrence of the specified character
+     * in this view at or after the specified index, or -1 if it does not
+     * occur.
+     */
+    public int indexOf(int ch, int fromIndex) {
+        if (ch >= 0x100) {
+            return -1;
+        }
+        for (int i = from + Math.max(fromIndex, 0); i < to; i++) {
+            if ((buf.get(i) & 0xff) == ch) {
+                return i - from;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns true if this view starts with the specified characters.
+     */
+    public boolean startsWith(CharSequence prefix) {
+        int n = prefix.length();
+        return n <= to - from && regionMatches(0, prefix, n);
+    }
+
+    /**
+     * Returns true if this view ends with the specified characters.
+     */
+    public boolean endsWith(CharSequence suffix) {
+        int n = suffix.length();
+        return n <= to - from && regionMatches(to - from - n, suffix, n);
+    }
+
+    /**
+     * Returns true if this view holds the same characters as the specified
+     * sequence.
+     */
+    public boolean contentEquals(CharSequence cs) {
+        int n = cs.length();
+        return n == to - from && regionMatches(0, cs, n);
+    }
+
+    private boolean regionMatches(int offset, CharSequence cs, int n) {
+        int p = from + offset;
+        for (int i = 0; i < n; i++) {
+            if ((buf.get(p + i) & 0xff) != cs.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Compares the characters of this view and of the specified sequence
+     * lexicographically, as {@link String#compareTo(String)} does.
+     */
+    @Override
+    public int compareTo(CharSequence cs) {
+        int n = Math.min(to - from, cs.length());
+        for (int i = 0; i < n; i++) {
+            int c = (buf.get(from + i) & 0xff) - cs.charAt(i);
+            if (c != 0) {
+                return c;
+            }
+        }
+        return (to - from) - cs.length();
+    }
+
+    /**
+     * Returns true if the specified object is a view holding the same bytes.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof ByteView && contentEquals((ByteView) obj);
+    }
+
+    /**
+     * Returns the hash code that {@link String#hashCode()} returns for the
+     * characters of this view.
+     */
+    @Override
+    public int hashCode() {
+        int h = 0;
+        for (int i = from; i < to; i++) {
+            h = 31 * h + (buf.get(i) & 0xff);
+        }
+        return h;
+    }
+
+    /**
+     * Parses this view as a signed decimal {@code int}.
+     *
+     * @throws NumberFormatException if the view is not such a number
+     */
+    public int parseInt() {
+        return parseInt(0, to - from);
+    }
+
+    /**
+     * Parses a range of this view as a signed decimal {@code int}.
+     *
+     * @throws NumberFormatException if the range is not such a number
+     * @throws IndexOutOfBoundsException if the range is out of bounds
+     */
+    public int parseInt(int start, int end) {
+        return (int) parseLong(start, end, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Parses this view as a signed decimal {@code long}.
+     *
+     * @throws NumberFormatException if the view is not such a number
+     */
+    public long parseLong() {
+        return parseLong(0, to - from);
+    }
+
+    /**
+     * Parses a range of this view as a signed decimal {@code long}.
+     *
+     * @throws NumberFormatException if the range is not such a number
+     * @throws IndexOutOfBoundsException if the range is out of bounds
+     */
+    public long parseLong(int start, int end) {
+        return parseLong(start, end, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    private long parseLong(int start, int end, long min, long max) {
+        Objects.checkFromToIndex(start, end, to - from);
+        int i = from + start;
+        int last = from + end;
+        boolean negative = false;
+        if (i < last) {
+            int c = buf.get(i);
+            if (c == '-' || c == '+') {
+                negative = c == '-';
+                i++;
+            }
+        }
+        if (i == last) {
+            throw formatException(start, end);
+        }
+        long limit = negative ? min : -max;
+        long multmin = limit / 10;
+        long result = 0;
+        for (; i < last; i++) {
+            int d = buf.get(i) - '0';
+            if (d < 0 || d > 9 || result < multmin) {
+                throw formatException(start, end);
+            }
+            result *= 10;
+            if (result < limit + d) {
+                throw formatException(start, end);
+            }
+            result -= d;
+        }
+        return negative ? result : -result;
+    }
+
+    /**
+     * Parses this view as a {@code double}.
+     *
+     * @throws NumberFormatException if the view is not such a number
+     */
+    public double parseDouble() {
+        return parseDouble(0, to - from);
+    }
+
+    /**
+     * Parses a range of this view as a {@code double}.
+     *
+     * @throws NumberFormatException if the range is not such a number
+     * @throws IndexOutOfBoundsException if the range is out of bounds
+     */
+    public double parseDouble(int start, int end) {
+        Objects.checkFromToIndex(start, end, to - from);
+        return DoubleParser.parseDouble(buf, from + start, from + end);
+    }
+
+    private NumberFormatException formatException(int start, int end) {
+        return new NumberFormatException("For input string: \"" + subSequence(start, end) + "\"");
+    }
+
+    /**
+     * Returns the text of this view, decoded with the charset of the input.
+     */
+    @Override
+    public String toString() {
+        byte[] b = new byte[to - from];
+        buf.get(from, b);
+        return new String(b, charset);
+    }
+}
@@ -0,0 +1,474 @@
+package io;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Reader of delimited text, such as CSV or TSV, one record at a time, in the
+ * manner of a {@code ResultSet}.
+ *
+ * <p>
+ * A reader is obtained from {@link io#csv(char)} for standard input, or from
+ * {@link FastInput#csv(char)} for any other input. Each call to
+ * {@link #next()} locates the fields of the next record in the input buffer,
+ * where they stay until the following call: no {@code String} is created
+ * for a field, and the typed getters, such as {@link #getInt(int)} and
+ * {@link #getDouble(int)}, parse their value straight from its bytes. After
+ * {@link #select(int...)}, only the selected columns are located at all;
+ * the others are skipped over.
+ *
+ * <pre>{@code
+ * CsvReader csv = io.csv(',').header().select("id", "price");
+ * int id = csv.column("id");
+ * int price = csv.column("price");
+ * while (csv.next()) {
+ *     total += csv.getLong(id) * csv.getDouble(price);
+ * }
+ * }</pre>
+ *
+ * <p>
+ * Fields are separated by the separator character and records by line
+ * terminators ({@code "\n"}, {@code "\r\n"} or {@code "\r"}). A field
+ * starting with a double quote extends to the next double quote not doubled,
+ * and may hold separators and line terminators; a doubled quote inside it
+ * stands for one quote. Bytes between the closing quote and the next
+ * separator are ignored.
+ *
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @author pedro
+ */
+public final class CsvReader {
+
+    private final FastInput in;
+    private final int separator;
+    private final ByteView view;
+
+    /* the buffer of in, the index of the current record in it, and its limit */
+    private ByteBuffer buf;
+    private int base;
+    private int lim;
+
+    private boolean current;
+
+    /* the number of fields of the current record, and for each located one
+     * the offsets of its content from base and whether it holds "" */
+    private int fields;
+    private int[] starts = new int[16];
+    private int[] ends = new int[16];
+    private boolean[] escaped = new boolean[16];
+
+    /* whether the quoted field being scanned holds "" */
+    private boolean quotes;
+
+    /* the selected columns, or null if every column is located */
+    private boolean[] selected;
+
+    private List<String> names;
+    private Map<String, Integer> columns;
+
+    CsvReader(FastInput in, char separator) {
+        if (separator >= 0x80 || separator == '"' || separator == '\n' || separator == '\r') {
+            throw new IllegalArgumentException("separator:" + separator);
+        }
+        this.in = in;
+        this.separator = separator;
+        this.view = new ByteView(in.charset());
+    }
+
+    /**
+     * Reads more input, keeping the bytes of the current record. Offsets from
+     * {@code base} are preserved, indices are not.
+     */
+    private boolean more() {
+        boolean more = in.refill();
+        buf = in.buffer();
+        base = in.offset();
+        lim = in.limit();
+        return more;
+    }
+
+    /**
+     * Returns the index of the first separator or line terminator at or
+     * after index {@code i}, or of the end of input.
+     */
+    private int fieldEnd(int i) {
+        for (;;) {
+            if (i == lim) {
+                int k = i - base;
+                boolean more = more();
+                i = base + k;
+                if (!more) {
+                    return i;
+                }
+            }
+            int c = buf.get(i);
+            if (c == separator || c == '\n' || c == '\r') {
+                return i;
+            }
+            i++;
+        }
+    }
+
+    /**
+     * Returns the index of the closing quote of the quoted field whose
+     * content starts at index {@code i}, or of the end of input, and records
+     * in {@code quotes} whether the content holds doubled quotes.
+     */
+    private int quoteEnd(int i) {
+        for (;;) {
+            while (i + 1 >= lim) {
+                // the byte after a quote must be read too
+                int k = i - base;
+                boolean more = more();
+                i = base + k;
+                if (!more) {
+                    break;
+                }
+            }
+            if (i == lim) {
+                return i;
+            }
+            if (buf.get(i) == '"') {
+                if (i + 1 < lim && buf.get(i + 1) == '"') {
+                    quotes = true;
+                    i += 2;
+                    continue;
+                }
+                return i;
+            }
+            i++;
+        }
+    }
+
+    /**
+     * Advances to the next record.
+     *
+     * @return false if the input has no more records
+     * @throws IllegalStateException if the input is closed
+     */
+    public boolean next() {
+        buf = in.buffer();
+        base = in.offset();
+        lim = in.limit();
+        current = false;
+        if (base == lim && !more()) {
+            return false;
+        }
+        boolean[] selected = this.selected;
+        int i = base;
+        int f = 0;
+        for (;;) {
+            if (i == lim) {
+                int k = i - base;
+                more();
+                i = base + k;
+            }
+            int from;
+            int to;
+            quotes = false;
+            if (i < lim && buf.get(i) == '"') {
+                from = i + 1 - base;
+                i = quoteEnd(i + 1);
+                to = i - base;
+                i = fieldEnd(i < lim ? i + 1 : i);
+            } else {
+                from = i - base;
+                i = fieldEnd(i);
+                to = i - base;
+            }
+            if (selected == null || f < selected.length && selected[f]) {
+                if (f == starts.length) {
+                    starts = Arrays.copyOf(starts, 2 * f);
+                    ends = Arrays.copyOf(ends, 2 * f);
+                    escaped = Arrays.copyOf(escaped, 2 * f);
+                }
+                starts[f] = from;
+                ends[f] = to;
+                escaped[f] = quotes;
+            }
+            f++;
+            if (i == lim) {
+                break;
+            }
+            int c = buf.get(i++);
+            if (c == separator) {
+                continue;
+            }
+            if (c == '\r') {
+                if (i == lim) {
+                    int k = i - base;
+                    more();
+                    i = base + k;
+                }
+                if (i < lim && buf.get(i) == '\n') {
+                    i++;
+                }
+            }
+            break;
+        }
+        fields = f;
+        current = true;
+        in.consume(i);
+        return true;
+    }
+
+    /**
+     * Reads the next record as the names of the columns, which can then be
+     * given to the methods taking a column name.
+     *
+     * @return this reader
+     * @throws NoSuchElementException if the input has no more records
+     */
+    public CsvReader header() {
+        boolean[] selected = this.selected;
+        this.selected = null;
+        try {
+            if (!next()) {
+                throw new NoSuchElementException("No header found");
+            }
+        } finally {
+            this.selected = selected;
+        }
+        String[] a = new String[fields];
+        columns = new HashMap<>();
+        for (int i = 0; i < a.length; i++) {
+            a[i] = getString(i);
+            columns.putIfAbsent(a[i], i);
+        }
+        names = Collections.unmodifiableList(Arrays.asList(a));
+        current = false;
+        return this;
+    }
+
+    /**
+     * Returns the names of the columns read by {@link #header()}.
+     *
+     * @throws IllegalStateException if no header has been read
+     */
+    public List<String> names() {
+        if (names == null) {
+            throw new IllegalStateException("No header read");
+        }
+        return names;
+    }
+
+    /**
+     * Returns the index of the first column with the specified name.
+     *
+     * @param name the name of the column
+     * @return the index of the column
+     * @throws IllegalStateException if no header has been read
+     * @throws IllegalArgumentException if no column has the name
+     */
+    public int column(String name) {
+        if (columns == null) {
+            throw new IllegalStateException("No header read");
+        }
+        Integer i = columns.get(name);
+        if (i == null) {
+            throw new IllegalArgumentException("No column named " + name);
+        }
+        return i;
+    }
+
+    /**
+     * Makes the following records locate the specified columns only. The
+     * fields of other columns are skipped over, and the getters throw an
+     * {@code IllegalStateException} for them.
+     *
+     * @param columns the indices of the columns
+     * @return this reader
+     * @throws IllegalArgumentException if an index is negative
+     */
+    public CsvReader select(int... columns) {
+        int n = 0;
+        for (int c : columns) {
+            if (c < 0) {
+                throw new IllegalArgumentException("column:" + c);
+            }
+            n = Math.max(n, c + 1);
+        }
+        boolean[] selected = new boolean[n];
+        for (int c : columns) {
+            selected[c] = true;
+        }
+        this.selected = selected;
+        return this;
+    }
+
+    /**
+     * Makes the following records locate the columns with the specified
+     * names only.
+     *
+     * @param names the names of the columns
+     * @return this reader
+     * @throws IllegalStateException if no header has been read
+     * @throws IllegalArgumentException if no column has one of the names
+     * @see #select(int...)
+     */
+    public CsvReader select(String... names) {
+        int[] columns = new int[names.length];
+        for (int i = 0; i < names.length; i++) {
+            columns[i] = column(names[i]);
+        }
+        return select(columns);
+    }
+
+    /**
+     * Returns the number of fields of the current record, selected or not.
+     *
+     * @throws IllegalStateException if there is no current record
+     */
+    public int fields() {
+        if (!current) {
+            throw new IllegalStateException("No current record");
+        }
+        return fields;
+    }
+
+    private int located(int column) {
+        Objects.checkIndex(column, fields());
+        if (selected != null && (column >= selected.length || !selected[column])) {
+            throw new IllegalStateException("Column " + column + " not selected");
+        }
+        return column;
+    }
+
+    /**
+     * Returns a view of the bytes of a field, between its quotes if it is
+     * quoted, where a quote in the field shows as two. The view is reused,
+     * and only valid until the next call to a method that reads input.
+     *
+     * @param column the index of the column
+     * @return a view of the field
+     * @throws IllegalStateException if there is no current record or the
+     * column is not selected
+     * @throws IndexOutOfBoundsException if the record has no such field
+     */
+    public ByteView view(int column) {
+        int c = located(column);
+        return view.set(buf, base + starts[c], base + ends[c]);
+    }
+
+    /**
+     * Returns the text of a field, decoded with the charset of the input.
+     *
+     * @see #view(int)
+     */
+    public String getString(int column) {
+        ByteView v = view(column);
+        if (!escaped[column]) {
+            return v.toString();
+        }
+        byte[] b = new byte[v.length()];
+        int n = 0;
+        for (int i = 0; i < v.length(); i++) {
+            b[n++] = v.byteAt(i);
+            if (v.byteAt(i) == '"') {
+                i++;
+            }
+        }
+        return new String(b, 0, n, in.charset());
+    }
+
+    /**
+     * Parses a field as a signed decimal {@code int}.
+     *
+     * @throws NumberFormatException if the field is not such a number
+     * @see #view(int)
+     */
+    public int getInt(int column) {
+        return view(column).parseInt();
+    }
+
+    /**
+     * Parses a field as a signed decimal {@code long}.
+     *
+     * @throws NumberFormatException if the field is not such a number
+     * @see #view(int)
+     */
+    public long getLong(int column) {
+        return view(column).parseLong();
+    }
+
+    /**
+     * Parses a field as a {@code double}.
+     *
+     * @throws NumberFormatException if the field is not such a number
+     * @see #view(int)
+     */
+    public double getDouble(int column) {
+        return view(column).parseDouble();
+    }
+
+    /**
+     * Returns true if a field is empty.
+     *
+     * @see #view(int)
+     */
+    public boolean isEmpty(int column) {
+        return view(column).length() == 0;
+    }
+
+    /**
+     * Same as {@link #view(int)}, for the column with the specified name.
+     *
+     * @throws IllegalArgumentException if no column has the name
+     */
+    public ByteView view(String column) {
+        return view(column(column));
+    }
+
+    /**
+     * Same as {@link #getString(int)}, for the column with the specified name.
+     *
+     * @throws IllegalArgumentException if no column has the name
+     */
+    public String getString(String column) {
+        return getString(column(column));
+    }
+
+    /**
+     * Same as {@link #getInt(int)}, for the column with the specified name.
+     *
+     * @throws IllegalArgumentException if no column has the name
+     */
+    public int getInt(String column) {
+        return getInt(column(column));
+    }
+
+    /**
+     * Same as {@link #getLong(int)}, for the column with the specified name.
+     *
+     * @throws IllegalArgumentException if no column has the name
+     */
+    public long getLong(String column) {
+        return getLong(column(column));
+    }
+
+    /**
+     * Same as {@link #getDouble(int)}, for the column with the specified name.
+     *
+     * @throws IllegalArgumentException if no column has the name
+     */
+    public double getDouble(String column) {
+        return getDouble(column(column));
+    }
+
+    /**
+     * Same as {@link #isEmpty(int)}, for the column with the specified name.
+     *
+     * @throws IllegalArgumentException if no column has the name
+     */
+    public boolean isEmpty(String column) {
+        return isEmpty(column(column));
+    }
+}
@@ -0,0 +1,487 @@
+package io;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Formats {@code double} and {@code float} values as ASCII bytes, with the
+ * shortest decimal that rounds back to the value.
+ *
+ * <p>
+ * The decimal is found with the Schubfach algorithm, which scales the binary
+ * value and the bounds of its rounding interval by a 126-bit approximation of
+ * a power of ten and picks the shortest decimal inside the interval, with no
+ * loop over digits and no arbitrary precision arithmetic. Among the
+ * decimals of the shortest length, the one closest to the value is chosen,
+ * so the output is the one {@link Double#toString(double)} and
+ * {@link Float#toString(float)} give from Java 19 on, which older releases
+ * match except where they print a digit more than needed. The layout is
+ * theirs: plain notation with at least one fractional digit from 10^-3 to
+ * 10^7, computerized scientific notation outside.
+ *
+ * <p>
+ * See Raffaello Giulietti, <cite>The Schubfach way to render doubles</cite>,
+ * 2020.
+ *
+ * <p>
+ * An instance holds the decimal being formatted, so it must not be shared by
+ * threads.
+ *
+ * @author pedro
+ */
+final class DoubleFormatter {
+
+    private static final int K_MIN = -324;
+    private static final int K_MAX = 292;
+
+    private static final long MASK_63 = (1L << 63) - 1;
+    private static final long MASK_32 = (1L << 32) - 1;
+
+    /**
+     * The 126-bit upper approximations g of 10^-k, for k from {@code K_MIN}
+     * to {@code K_MAX}, as pairs of the upper 63 bits and the lower 63 bits:
+     * with 10^-k = beta 2^r and 2^125 &lt;= beta &lt; 2^126,
+     * g = floor(beta) + 1.
+     */
+    private static final long[] G = new long[2 * (K_MAX - K_MIN + 1)];
+
+    private static final long[] POWERS_OF_TEN = new long[19];
+
+    /*
+     * whether Double.toString gives the shortest decimal, as from Java 19;
+     * before, it and String.format use the digits of FloatingDecimal
+     */
+    private static final boolean SHORTEST_TO_STRING = Runtime.version().feature() >= 19;
+
+    static {
+        for (int k = K_MIN; k <= K_MAX; k++) {
+            int e = -k;
+            int r = flog2pow10(e);
+            BigInteger g;
+            if (e >= 0) {
+                BigInteger p = BigInteger.TEN.pow(e);
+                g = r <= 125 ? p.shiftLeft(125 - r) : p.shiftRight(r - 125);
+            } else {
+                g = BigInteger.ONE.shiftLeft(125 - r).divide(BigInteger.TEN.pow(-e));
+            }
+            g = g.add(BigInteger.ONE);
+            int index = 2 * (k - K_MIN);
+            G[index] = g.shiftRight(63).longValue();
+            G[index + 1] = g.longValue() & MASK_63;
+        }
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = 10 * POWERS_OF_TEN[i - 1];
+        }
+    }
+
+    /* the value last found: f * 10^e, with f > 0 and no trailing zeros */
+    private long f;
+    private int e;
+
+    /**
+     * Writes the shortest decimal representation of the value at
+     * {@code off}, which must have room for 24 bytes.
+     *
+     * @return the offset after the last byte written
+     */
+    int format(double v, byte[] buf, int off) {
+        long bits = Double.doubleToRawLongBits(v);
+        int bq = (int) (bits >>> 52) & 0x7FF;
+        long t = bits & (1L << 52) - 1;
+        if (bq == 0x7FF) {
+            return special(t != 0, bits < 0, buf, off);
+        }
+        if (bits < 0) {
+            buf[off++] = '-';
+        }
+        if (bq == 0 && t == 0) {
+            return zero(buf, off);
+        }
+        decimal(bq, t);
+        return chars(buf, off);
+    }
+
+    /**
+     * Writes the shortest decimal representation of the value at
+     * {@code off}, which must have room for 15 bytes.
+     *
+     * @return the offset after the last byte written
+     */
+    int format(float v, byte[] buf, int off) {
+        int bits = Float.floatToRawIntBits(v);
+        int bq = (bits >>> 23) & 0xFF;
+        int t = bits & (1 << 23) - 1;
+        if (bq == 0xFF) {
+            return special(t != 0, bits < 0, buf, off);
+        }
+        if (bits < 0) {
+            buf[off++] = '-';
+        }
+        if (bq == 0 && t == 0) {
+            return zero(buf, off);
+        }
+        floatDecimal(bq, t);
+        return chars(buf, off);
+    }
+
+    /**
+     * Writes the value with the specified number of fractional digits, in
+     * the manner of {@code String.format(Locale.ROOT, "%.<decimals>f", v)}:
+     * the shortest decimal representation is rounded half up. Only finite
+     * values with at most 17 fractional digits and 18 digits in all are
+     * handled, in at most 20 bytes. Before Java 19, where
+     * {@code String.format} rounds the digits of {@code Double.toString}
+     * instead, values with 16 or more significant digits or of 10^15 or more
+     * are not handled either, as those digits may differ from the shortest.
+     *
+     * @return the offset after the last byte written, or -1 if the value or
+     * the number of digits is not handled, in which case nothing is written
+     */
+    int format(double v, int decimals, byte[] buf, int off) {
+        long bits = Double.doubleToRawLongBits(v);
+        int bq = (int) (bits >>> 52) & 0x7FF;
+        long t = bits & (1L << 52) - 1;
+        if (bq == 0x7FF || decimals > 17) {
+            return -1;
+        }
+        long d;
+        if (bq == 0 && t == 0) {
+            d = 0;
+        } else {
+            decimal(bq, t);
+            int length = length(f);
+            if (length + e + decimals > 18
+                    || !SHORTEST_TO_STRING && (length >= 16 || length + e > 15)) {
+                return -1;
+            }
+            if (e >= -decimals) {
+                d = f * POWERS_OF_TEN[e + decimals];
+            } else {
+                int drop = -decimals - e;
+                if (drop > 18) {
+                    d = 0;
+                } else {
+                    long p = POWERS_OF_TEN[drop];
+                    d = f / p;
+                    if (2 * (f - d * p) >= p) {
+                        d++;
+                    }
+                }
+            }
+        }
+        if (bits < 0) {
+            buf[off++] = '-';
+        }
+        int n = Math.max(length(d), decimals + 1);
+        int end = off + n + (decimals > 0 ? 1 : 0);
+        int p = end;
+        for (int i = 0; i < n; i++) {
+            if (i == decimals && decimals > 0) {
+                buf[--p] = '.';
+            }
+            long q = d / 10;
+            buf[--p] = (byte) ('0' + (d - 10 * q));
+            d = q;
+        }
+        return end;
+    }
+
+    /**
+     * Returns the value with the specified number of fractional digits, in
+     * the manner of {@code String.format(Locale.ROOT, "%.<decimals>f", v)}.
+     */
+    static String toString(double v, int decimals) {
+        byte[] b = new byte[20];
+        int end = new DoubleFormatter().format(v, decimals, b, 0);
+        return end < 0 ? String.format(Locale.ROOT, "%." + decimals + "f", v)
+                : new String(b, 0, end, StandardCharsets.ISO_8859_1);
+    }
+
+    private static int special(boolean nan, boolean negative, byte[] buf, int off) {
+        String s = nan ? "NaN" : negative ? "-Infinity" : "Infinity";
+        for (int i = 0; i < s.length(); i++) {
+            buf[off++] = (byte) s.charAt(i);
+        }
+        return off;
+    }
+
+    private static int zero(byte[] buf, int off) {
+        buf[off] = '0';
+        buf[off + 1] = '.';
+        buf[off + 2] = '0';
+        return off + 3;
+    }
+
+    /**
+     * Finds the shortest decimal of the positive double with biased exponent
+     * {@code bq} and trailing significand bits {@code t}.
+     */
+    private void decimal(int bq, long t) {
+        if (bq != 0) {
+            int mq = 1075 - bq;
+            long c = 1L << 52 | t;
+            if (0 < mq && mq < 53) {
+                long i = c >> mq;
+                if (i << mq == c) {
+                    // an integer, exact in at most 16 digits
+                    set(i, 0);
+                    return;
+                }
+            }
+            decimal(-mq, c, 0);
+        } else if (t < 3) {
+            // too few digits to hold the shortest decimal: scale them up
+            decimal(-1074, 10 * t, -1);
+        } else {
+            decimal(-1074, t, 0);
+        }
+    }
+
+    /**
+     * Finds the shortest decimal of c 2^q, and adds {@code dk} to its
+     * exponent.
+     */
+    private void decimal(int q, long c, int dk) {
+        int out = (int) c & 1;
+        long cb = c << 2;
+        long cbr = cb + 2;
+        long cbl;
+        int k;
+        if (c != 1L << 52 || q == -1074) {
+            cbl = cb - 2;
+            k = flog10pow2(q);
+        } else {
+            // the lower neighbour is closer at a power of two
+            cbl = cb - 1;
+            k = flog10threeQuartersPow2(q);
+        }
+        int h = q + flog2pow10(-k) + 2;
+        int index = 2 * (k - K_MIN);
+        long g1 = G[index];
+        long g0 = G[index + 1];
+        long vb = rop(g1, g0, cb << h);
+        long vbl = rop(g1, g0, cbl << h);
+        long vbr = rop(g1, g0, cbr << h);
+        long s = vb >> 2;
+        if (s >= 100) {
+            long sp10 = s / 10 * 10;
+            long tp10 = sp10 + 10;
+            boolean upin = vbl + out <= sp10 << 2;
+            boolean wpin = (tp10 << 2) + out <= vbr;
+            if (upin != wpin) {
+                set(upin ? sp10 : tp10, k);
+                return;
+            }
+        }
+        long t = s + 1;
+        boolean uin = vbl + out <= s << 2;
+        boolean win = (t << 2) + out <= vbr;
+        if (uin != win) {
+            set(uin ? s : t, k + dk);
+            return;
+        }
+        long cmp = vb - (s + t << 1);
+        set(cmp < 0 || cmp == 0 && (s & 1) == 0 ? s : t, k + dk);
+    }
+
+    /**
+     * Finds the shortest decimal of the positive float with biased exponent
+     * {@code bq} and trailing significand bits {@code t}.
+     */
+    private void floatDecimal(int bq, int t) {
+        if (bq != 0) {
+            int mq = 150 - bq;
+            int c = 1 << 23 | t;
+            if (0 < mq && mq < 24) {
+                int i = c >> mq;
+                if (i << mq == c) {
+                    set(i, 0);
+                    return;
+                }
+            }
+            floatDecimal(-mq, c, 0);
+        } else if (t < 8) {
+            floatDecimal(-149, 10 * t, -1);
+        } else {
+            floatDecimal(-149, t, 0);
+        }
+    }
+
+    /**
+     * Finds the shortest decimal of the float c 2^q, and adds {@code dk} to
+     * its exponent.
+     */
+    private void floatDecimal(int q, int c, int dk) {
+        int out = c & 1;
+        long cb = (long) c << 2;
+        long cbr = cb + 2;
+        long cbl;
+        int k;
+        if (c != 1 << 23 || q == -149) {
+            cbl = cb - 2;
+            k = flog10pow2(q);
+        } else {
+            cbl = cb - 1;
+            k = flog10threeQuartersPow2(q);
+        }
+        int h = q + flog2pow10(-k) + 33;
+        long g = G[2 * (k - K_MIN)] + 1;
+        int vb = rop(g, cb << h);
+        int vbl = rop(g, cbl << h);
+        int vbr = rop(g, cbr << h);
+        int s = vb >> 2;
+        if (s >= 100) {
+            int sp10 = s / 10 * 10;
+            int tp10 = sp10 + 10;
+            boolean upin = vbl + out <= sp10 << 2;
+            boolean wpin = (tp10 << 2) + out <= vbr;
+            if (upin != wpin) {
+                set(upin ? sp10 : tp10, k);
+                return;
+            }
+        }
+        int t = s + 1;
+        boolean uin = vbl + out <= s << 2;
+        boolean win = (t << 2) + out <= vbr;
+        if (uin != win) {
+            set(uin ? s : t, k + dk);
+            return;
+        }
+        int cmp = vb - (s + t << 1);
+        set(cmp < 0 || cmp == 0 && (s & 1) == 0 ? s : t, k + dk);
+    }
+
+    /**
+     * Returns the product of g = g1 2^63 + g0 and cp, divided by 2^127 and
+     * rounded to odd.
+     */
+    private static long rop(long g1, long g0, long cp) {
+        long x1 = Math.multiplyHigh(g0, cp);
+        long y0 = g1 * cp;
+        long y1 = Math.multiplyHigh(g1, cp);
+        long z = (y0 >>> 1) + x1;
+        long vbp = y1 + (z >>> 63);
+        return vbp | (z & MASK_63) + MASK_63 >>> 63;
+    }
+
+    /**
+     * Returns the product of g and cp, divided by 2^95 and rounded to odd.
+     */
+    private static int rop(long g, long cp) {
+        long x1 = Math.multiplyHigh(g, cp);
+        long vbp = x1 >>> 31;
+        return (int) (vbp | (x1 & MASK_32) + MASK_32 >>> 32);
+    }
+
+    /* floor(log10(2^q)) */
+    private static int flog10pow2(int q) {
+        return (int) (q * 661_971_961_083L >> 41);
+    }
+
+    /* floor(log10(3/4 2^q)) */
+    private static int flog10threeQuartersPow2(int q) {
+        return (int) (q * 661_971_961_083L - 274_743_187_321L >> 41);
+    }
+
+    /* floor(log2(10^e)) */
+    private static int flog2pow10(int e) {
+        return (int) (e * 913_124_641_741L >> 38);
+    }
+
+    private void set(long f, int e) {
+        while (f % 10 == 0) {
+            f /= 10;
+            e++;
+        }
+        this.f = f;
+        this.e = e;
+    }
+
+    /**
+     * Returns the number of decimal digits of {@code d}, which is not
+     * negative.
+     */
+    private static int length(long d) {
+        int n = 1;
+        while (n < 19 && d >= POWERS_OF_TEN[n]) {
+            n++;
+        }
+        return n;
+    }
+
+    /**
+     * Writes f 10^e in plain notation if 10^-3 &lt;= f 10^e &lt; 10^7 and
+     * in computerized scientific notation otherwise.
+     */
+    private int chars(byte[] buf, int off) {
+        int n = length(f);
+        int x = e + n - 1;
+        if (0 <= x && x < 7) {
+            // ddd.ddd, or ddd00.0
+            off = digits(f, n, buf, off);
+            if (n <= x + 1) {
+                for (int i = n; i <= x; i++) {
+                    buf[off++] = '0';
+                }
+                buf[off++] = '.';
+                buf[off++] = '0';
+                return off;
+            }
+            int point = off - n + x + 1;
+            System.arraycopy(buf, point, buf, point + 1, off - point);
+            buf[point] = '.';
+            return off + 1;
+        }
+        if (-3 <= x && x < 0) {
+            // 0.00ddd
+            buf[off++] = '0';
+            buf[off++] = '.';
+            for (int i = -1; i > x; i--) {
+                buf[off++] = '0';
+            }
+            return digits(f, n, buf, off);
+        }
+        // d.dddE-xx
+        off = digits(f, n, buf, off);
+        if (n == 1) {
+            buf[off++] = '.';
+            buf[off++] = '0';
+        } else {
+            int point = off - n + 1;
+            System.arraycopy(buf, point, buf, point + 1, n - 1);
+            buf[point] = '.';
+            off++;
+        }
+        buf[off++] = 'E';
+        if (x < 0) {
+            buf[off++] = '-';
+            x = -x;
+        }
+        if (x >= 100) {
+            buf[off++] = (byte) ('0' + x / 100);
+            x %= 100;
+            buf[off++] = (byte) ('0' + x / 10);
+        } else if (x >= 10) {
+            buf[off++] = (byte) ('0' + x / 10);
+        }
+        buf[off++] = (byte) ('0' + x % 10);
+        return off;
+    }
+
+    /**
+     * Writes the {@code n} digits of {@code d} at {@code off}.
+     *
+     * @return the offset after the last digit
+     */
+    private static int digits(long d, int n, byte[] buf, int off) {
+        int end = off + n;
+        for (int i = end - 1; i >= off; i--) {
+            long q = d / 10;
+            buf[i] = (byte) ('0' + (d - 10 * q));
+            d = q;
+        }
+        return end;
+    }
+}
@@ -0,0 +1,288 @@
+package io;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Pattern;
+
+/**
+ * Correctly rounded conversion of decimal numbers written in ASCII bytes to
+ * {@code double} and {@code float} values.
+ *
+ * <p>
+ * A number with at most 19 significant digits is converted with Clinger's
+ * fast path when its mantissa and power of ten are both exact in floating
+ * point, and with the Eisel-Lemire algorithm otherwise, which multiplies the
+ * mantissa by a 128-bit approximation of the power of five. Longer numbers,
+ * {@code NaN}, {@code Infinity}, hexadecimal numbers and the rare cases
+ * Eisel-Lemire cannot round with certainty are handed to
+ * {@link Double#parseDouble} or {@link Float#parseFloat}, so the result is
+ * always bit for bit the one they would return.
+ *
+ * <p>
+ * The numbers accepted are those a {@code Scanner} accepts with ASCII
+ * digits and no group separators: unlike {@code Double.parseDouble}, no
+ * leading or trailing whitespace, no {@code d} or {@code f} type suffix, and
+ * a hexadecimal number only with a point and a binary exponent, as in
+ * {@code 0x1.8p1}.
+ *
+ * <p>
+ * See Daniel Lemire, <cite>Number Parsing at a Gigabyte per Second</cite>,
+ * Software: Practice and Experience 51 (8), 2021.
+ *
+ * @author pedro
+ */
+final class DoubleParser {
+
+    /* the hexadecimal numbers of Scanner that Double.parseDouble accepts */
+    private static final Pattern HEXADECIMAL = Pattern.compile(
+            "[-+]?0[xX][0-9a-fA-F]*\\.[0-9a-fA-F]+[pP][-+]?[0-9]+");
+
+    private static final int SMALLEST_POWER_OF_TEN = -342;
+    private static final int LARGEST_POWER_OF_TEN = 308;
+
+    /**
+     * The 128-bit truncated significands of 5^q, for q from
+     * {@code SMALLEST_POWER_OF_TEN} to {@code LARGEST_POWER_OF_TEN}, as pairs
+     * of high and low words.
+     */
+    private static final long[] POWERS_OF_FIVE = new long[2 * (LARGEST_POWER_OF_TEN - SMALLEST_POWER_OF_TEN + 1)];
+
+    private static final double[] DOUBLE_POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private static final float[] FLOAT_POWERS_OF_TEN = {
+        1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f
+    };
+
+    static {
+        BigInteger two128 = BigInteger.ONE.shiftLeft(128);
+        for (int q = SMALLEST_POWER_OF_TEN; q <= LARGEST_POWER_OF_TEN; q++) {
+            BigInteger c;
+            if (q < 0) {
+                BigInteger power5 = BigInteger.valueOf(5).pow(-q);
+                int z = power5.subtract(BigInteger.ONE).bitLength();
+                int b = q >= -27 ? z + 127 : 2 * z + 128;
+                c = BigInteger.ONE.shiftLeft(b).divide(power5).add(BigInteger.ONE);
+            } else {
+                c = BigInteger.valueOf(5).pow(q);
+                if (c.bitLength() < 128) {
+                    c = c.shiftLeft(128 - c.bitLength());
+                }
+            }
+            if (c.compareTo(two128) >= 0) {
+                c = c.shiftRight(c.bitLength() - 128);
+            }
+            int index = 2 * (q - SMALLEST_POWER_OF_TEN);
+            POWERS_OF_FIVE[index] = c.shiftRight(64).longValue();
+            POWERS_OF_FIVE[index + 1] = c.longValue();
+        }
+    }
+
+    private DoubleParser() {
+    }
+
+    /**
+     * Parses the bytes from {@code from} to {@code to} as a {@code double},
+     * in the manner of {@link Double#parseDouble}.
+     *
+     * @throws NumberFormatException if the bytes are not a number
+     */
+    static double parseDouble(ByteBuffer buf, int from, int to) {
+        return Double.longBitsToDouble(parse(buf, from, to, false));
+    }
+
+    /**
+     * Parses the bytes from {@code from} to {@code to} as a {@code float}, in
+     * the manner of {@link Float#parseFloat}.
+     *
+     * @throws NumberFormatException if the bytes are not a number
+     */
+    static float parseFloat(ByteBuffer buf, int from, int to) {
+        return Float.intBitsToFloat((int) parse(buf, from, to, true));
+    }
+
+    /**
+     * Returns the bits of the {@code double}, or of the {@code float} in the
+     * low 32 bits if {@code single} is true, written in the bytes from
+     * {@code from} to {@code to}.
+     */
+    private static long parse(ByteBuffer buf, int from, int to, boolean single) {
+        int i = from;
+        boolean negative = false;
+        if (i < to && (buf.get(i) == '-' || buf.get(i) == '+')) {
+            negative = buf.get(i) == '-';
+            i++;
+        }
+        long w = 0;
+        int digits = 0;
+        int q = 0;
+        int start = i;
+        int d;
+        while (i < to && (d = buf.get(i) - '0') >= 0 && d <= 9) {
+            if (w != 0 || d != 0) {
+                digits++;
+            }
+            w = 10 * w + d;
+            i++;
+        }
+        boolean any = i > start;
+        if (i < to && buf.get(i) == '.') {
+            start = ++i;
+            while (i < to && (d = buf.get(i) - '0') >= 0 && d <= 9) {
+                if (w != 0 || d != 0) {
+                    digits++;
+                }
+                w = 10 * w + d;
+                q--;
+                i++;
+            }
+            any |= i > start;
+        }
+        if (any && i < to && (buf.get(i) | 0x20) == 'e') {
+            i++;
+            boolean negativeExponent = false;
+            if (i < to && (buf.get(i) == '-' || buf.get(i) == '+')) {
+                negativeExponent = buf.get(i) == '-';
+                i++;
+            }
+            start = i;
+            int e = 0;
+            while (i < to && (d = buf.get(i) - '0') >= 0 && d <= 9) {
+                if (e < 100000) {
+                    e = 10 * e + d;
+                }
+                i++;
+            }
+            if (i == start) {
+                throw new NumberFormatException();
+            }
+            q += negativeExponent ? -e : e;
+        }
+        if (!any || i != to || digits > 19) {
+            return fallback(buf, from, to, single);
+        }
+        long bits = single ? toFloatBits(w, q) : toDoubleBits(w, q);
+        if (bits == -1) {
+            return fallback(buf, from, to, single);
+        }
+        if (negative) {
+            bits |= single ? 1L << 31 : 1L << 63;
+        }
+        return bits;
+    }
+
+    private static long fallback(ByteBuffer buf, int from, int to, boolean single) {
+        if (from == to) {
+            throw new NumberFormatException("empty String");
+        }
+        byte[] b = new byte[to - from];
+        buf.get(from, b);
+        String s = new String(b, StandardCharsets.ISO_8859_1);
+        int last = b[b.length - 1] & 0xff;
+        // accepted by Double.parseDouble, not by Scanner: surrounding
+        // whitespace, type suffixes, and hexadecimal numbers of other forms
+        if ((b[0] & 0xff) <= ' ' || last <= ' ' || (last | 0x20) == 'd' || (last | 0x20) == 'f'
+                || (s.indexOf('x') >= 0 || s.indexOf('X') >= 0) && !HEXADECIMAL.matcher(s).matches()) {
+            throw new NumberFormatException("For input string: \"" + s + "\"");
+        }
+        return single ? Float.floatToRawIntBits(Float.parseFloat(s)) & 0xFFFFFFFFL
+                : Double.doubleToRawLongBits(Double.parseDouble(s));
+    }
+
+    private static long toDoubleBits(long w, int q) {
+        if (q >= -22 && q <= 22 && w >= 0 && w <= 1L << 53) {
+            double d = w;
+            d = q < 0 ? d / DOUBLE_POWERS_OF_TEN[-q] : d * DOUBLE_POWERS_OF_TEN[q];
+            return Double.doubleToRawLongBits(d);
+        }
+        return eiselLemire(w, q, 52, -1023, 0x7FF, -342, 308, -4, 23);
+    }
+
+    private static long toFloatBits(long w, int q) {
+        if (q >= -10 && q <= 10 && w >= 0 && w <= 1L << 24) {
+            float f = w;
+            f = q < 0 ? f / FLOAT_POWERS_OF_TEN[-q] : f * FLOAT_POWERS_OF_TEN[q];
+            return Float.floatToRawIntBits(f);
+        }
+        return eiselLemire(w, q, 23, -127, 0xFF, -65, 38, -17, 10);
+    }
+
+    /**
+     * Returns the bits of the binary floating-point number nearest to
+     * {@code w * 10^q}, where {@code w} is unsigned, or -1 if that number
+     * cannot be determined from a 128-bit product.
+     *
+     * @param mantissaBits the number of explicit mantissa bits
+     * @param minExponent the exponent bias, negated
+     * @param infinitePower the biased exponent of infinity
+     * @param smallestPower the power of ten below which every number is zero
+     * @param largestPower the power of ten above which every number is
+     * infinite
+     * @param minRoundToEven the smallest power of ten of a number that may lie
+     * exactly halfway between two floating-point numbers
+     * @param maxRoundToEven the largest such power of ten
+     */
+    private static long eiselLemire(long w, int q, int mantissaBits, int minExponent, int infinitePower,
+            int smallestPower, int largestPower, int minRoundToEven, int maxRoundToEven) {
+        if (w == 0 || q < smallestPower) {
+            return 0;
+        }
+        if (q > largestPower) {
+            return (long) infinitePower << mantissaBits;
+        }
+        int lz = Long.numberOfLeadingZeros(w);
+        w <<= lz;
+        int index = 2 * (q - SMALLEST_POWER_OF_TEN);
+        long low = w * POWERS_OF_FIVE[index];
+        long high = unsignedMultiplyHigh(w, POWERS_OF_FIVE[index]);
+        long precisionMask = -1L >>> (mantissaBits + 3);
+        if ((high & precisionMask) == precisionMask) {
+            long secondHigh = unsignedMultiplyHigh(w, POWERS_OF_FIVE[index + 1]);
+            low += secondHigh;
+            if (Long.compareUnsigned(secondHigh, low) > 0) {
+                high++;
+            }
+        }
+        if (low == -1L && (q < -27 || q > 55)) {
+            return -1;
+        }
+        int upperBit = (int) (high >>> 63);
+        int shift = upperBit + 64 - mantissaBits - 3;
+        long mantissa = high >>> shift;
+        int power2 = (((152170 + 65536) * q) >> 16) + 63 + upperBit - lz - minExponent;
+        if (power2 <= 0) {
+            // subnormal
+            if (-power2 + 1 >= 64) {
+                return 0;
+            }
+            mantissa >>>= -power2 + 1;
+            mantissa += mantissa & 1;
+            mantissa >>>= 1;
+            power2 = mantissa < 1L << mantissaBits ? 0 : 1;
+            return mantissa | (long) power2 << mantissaBits;
+        }
+        if (Long.compareUnsigned(low, 1) <= 0 && q >= minRoundToEven && q <= maxRoundToEven
+                && (mantissa & 3) == 1 && mantissa << shift == high) {
+            // exactly halfway: round to even
+            mantissa &= ~1L;
+        }
+        mantissa += mantissa & 1;
+        mantissa >>>= 1;
+        if (mantissa >= 2L << mantissaBits) {
+            mantissa = 1L << mantissaBits;
+            power2++;
+        }
+        mantissa &= ~(1L << mantissaBits);
+        if (power2 >= infinitePower) {
+            return (long) infinitePower << mantissaBits;
+        }
+        return mantissa | (long) power2 << mantissaBits;
+    }
+
+    private static long unsignedMultiplyHigh(long x, long y) {
+        return Math.multiplyHigh(x, y) + ((x >> 63) & y) + ((y >> 63) & x);
+    }
+}
@@ -0,0 +1,1860 @@
+package io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.InputMismatchException;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.regex.MatchResult;
+import java.util.regex.Pattern;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Byte-level tokenizer behind the {@code next} methods of {@link io} when
+ * fast input is in use.
+ *
+ * <p>
+ * Input is read in large blocks into a reusable buffer, and tokens are parsed
+ * straight from those bytes: no regular expression is matched and no object
+ * is created for a primitive value. Tokens are separated by ASCII whitespace,
+ * which is what the default delimiter of {@link java.util.Scanner} matches on
+ * ASCII input. Numbers are written with ASCII digits, an optional leading
+ * sign and no locale specific group separators. Text is decoded with the
+ * platform's default charset, which must be ASCII compatible, and only when
+ * a token or line is returned as a string; a string found to be ASCII, eight
+ * bytes at a time, is copied rather than decoded.
+ *
+ * <p>
+ * The input is either a stream, read into a heap buffer, or a region of a
+ * regular file, which is mapped into memory in large windows and parsed in
+ * place, with no copy and no read call.
+ *
+ * <p>
+ * As with {@code Scanner}, a method that fails to interpret the next token
+ * throws an {@code InputMismatchException} and does not advance past it, and
+ * an {@code IOException} thrown by the source is taken as the end of input
+ * and made available through {@link #ioException}. An
+ * {@code InterruptedIOException}, thrown when the reading thread is
+ * interrupted while it waits for input, is not: it is rethrown in an
+ * {@code UncheckedIOException}, the interrupt status left set, and the next
+ * call reads on from where the interrupted one started.
+ *
+ * <p>
+ * Besides the one reading standard input for the static methods of
+ * {@link io}, tokenizers over other inputs are obtained from
+ * {@link io#open(Path)}, {@link io#of(InputStream)} and
+ * {@link io#of(ReadableByteChannel)}. They offer the same {@code next},
+ * {@code hasNext} and stream methods, so that several inputs can be read at
+ * once, each by its own thread, but no {@code Scanner} method such as
+ * {@code findInLine}, since there is no {@code Scanner} to hand them over
+ * to.
+ *
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @author pedro
+ */
+public final class FastInput implements Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /* the number of characters passed at a time by nextLineChunks */
+    private static final int CHUNK_SIZE = 1 << 13;
+
+    private static final int MAP_WINDOW = 1 << 30;
+
+    private static final int MAX_BUFFER_SIZE = Integer.MAX_VALUE - 8;
+
+    /**
+     * The bytes matched by the default {@code Scanner} delimiter,
+     * {@code \p{javaWhitespace}+}, in the ASCII range.
+     */
+    private static final boolean[] WHITESPACE = new boolean[256];
+
+    /* the pattern of the default delimiters, that of Scanner */
+    private static final Pattern DEFAULT_DELIMITER = Pattern.compile("\\p{javaWhitespace}+");
+
+    /**
+     * Value of each ASCII digit in radix 36, or -1 for any other byte.
+     */
+    private static final byte[] DIGIT = new byte[256];
+
+    static {
+        for (char c : "\t\n\u000B\f\r\u001C\u001D\u001E\u001F ".toCharArray()) {
+            WHITESPACE[c] = true;
+        }
+        Arrays.fill(DIGIT, (byte) -1);
+        for (int c = '0'; c <= '9'; c++) {
+            DIGIT[c] = (byte) (c - '0');
+        }
+        for (int c = 'a'; c <= 'z'; c++) {
+            DIGIT[c] = (byte) (c - 'a' + 10);
+            DIGIT[c - 'a' + 'A'] = (byte) (c - 'a' + 10);
+        }
+    }
+
+    /* exactly one of source and file is non-null */
+    private final InputStream source;
+    private final FileChannel file;
+    private final Charset charset;
+
+    /* source if it reads ahead, whose buffers are then parsed in place */
+    private final PrefetchInputStream prefetch;
+
+    /* whether decoding ASCII text as Latin-1 is faster than with charset */
+    private final boolean checkAscii;
+
+    /* position in file of buf[0], and of the end of the input */
+    private long base;
+    private long end;
+
+    private ByteBuffer buf;
+    private int pos;
+    private int lim;
+
+    /* the array read into from a stream, unless buf is lent by prefetch */
+    private byte[] heap;
+
+    /* the view returned by nextView and nextLineView */
+    private final ByteView view;
+
+    /* created on first use by nextLineChunks and nextChunks */
+    private CharsetDecoder decoder;
+    private CharBuffer chunk;
+
+    /* bounds of the token found by the last call to token() */
+    private int ts;
+    private int te;
+
+    /*
+     * The token located at pos, and the value parsed from it, so that a
+     * hasNextX call followed by nextX locates and parses each token once.
+     * Valid while cachePos == pos; fill() invalidates it since it moves pos.
+     */
+    private int cachePos = -1;
+    private int cacheStart;
+    private int cacheEnd;
+    private int cacheType;
+    private int cacheRadix;
+    private long value;
+    private double doubleValue;
+    private Object objectValue;
+
+    private static final int NONE = 0;
+    private static final int INTEGER = 1;
+    private static final int BOOLEAN = 2;
+    private static final int DOUBLE = 3;
+    private static final int FLOAT = 4;
+    private static final int BIG_INTEGER = 5;
+    private static final int BIG_DECIMAL = 6;
+
+    private int radix = 10;
+
+    /*
+     * The bytes matched by the delimiter, which is a single one of them if
+     * collapse is false and a run of them otherwise; delimiter is null while
+     * it is the default one
+     */
+    private boolean[] delimiters = WHITESPACE;
+    private boolean collapse = true;
+    private Pattern delimiter;
+    private boolean eof;
+    private boolean closed;
+    private IOException lastException;
+
+    /**
+     * Constructs a tokenizer over the specified stream, decoding text with the
+     * specified charset.
+     *
+     * @param source the stream to read from
+     * @param charset the charset used to decode tokens and lines
+     */
+    FastInput(InputStream source, Charset charset) {
+        this.source = source;
+        this.prefetch = source instanceof PrefetchInputStream ? (PrefetchInputStream) source : null;
+        this.file = null;
+        this.charset = charset;
+        this.checkAscii = checkAscii(charset);
+        this.view = new ByteView(charset);
+        this.heap = new byte[BUFFER_SIZE];
+        this.buf = ByteBuffer.wrap(heap);
+    }
+
+    /**
+     * Constructs a tokenizer over the specified file channel, from its
+     * current position to its end, decoding text with the specified charset.
+     * The file is mapped into memory rather than read.
+     *
+     * @param file the channel to read from
+     * @param charset the charset used to decode tokens and lines
+     * @throws IOException if the position or size of the channel cannot be
+     * obtained, as happens when it is not a regular file
+     */
+    FastInput(FileChannel file, Charset charset) throws IOException {
+        this(file, file.position(), file.size(), charset);
+    }
+
+    /**
+     * Constructs a tokenizer over the bytes of the specified file channel
+     * from position {@code start} to position {@code end}.
+     *
+     * @param file the channel to read from
+     * @param start the position of the first byte
+     * @param end the position after the last byte
+     * @param charset the charset used to decode tokens and lines
+     */
+    FastInput(FileChannel file, long start, long end, Charset charset) {
+        this.source = null;
+        this.prefetch = null;
+        this.file = file;
+        this.charset = charset;
+        this.checkAscii = checkAscii(charset);
+        this.view = new ByteView(charset);
+        this.base = start;
+        this.end = end;
+        this.buf = ByteBuffer.allocate(0);
+    }
+
+    /**
+     * Reads more input into the buffer, keeping every byte from {@code pos}
+     * on. Offsets relative to {@code pos} are preserved, absolute indices are
+     * not, even when no byte is read.
+     *
+     * @return false if the end of input was reached and no byte was read
+     */
+    private boolean fill() {
+        if (eof) {
+            return false;
+        }
+        cachePos = -1;
+        if (file != null) {
+            return remap();
+        }
+        byte[] a = buf.array();
+        int n = lim - pos;
+        try {
+            if (prefetch != null && n <= PrefetchInputStream.HEADROOM) {
+                ByteBuffer b = prefetch.lend(a, pos, n);
+                if (b == null) {
+                    eof = true;
+                    return false;
+                }
+                pos = b.position();
+                lim = b.limit();
+                buf = b.clear();
+                return true;
+            }
+            if (a != heap) {
+                // too many bytes kept to parse the next block in place
+                if (heap.length <= n) {
+                    heap = new byte[(int) Math.min(2L * n, MAX_BUFFER_SIZE)];
+                }
+                System.arraycopy(a, pos, heap, 0, n);
+                a = heap;
+                buf = ByteBuffer.wrap(a);
+                pos = 0;
+                lim = n;
+            } else if (lim == a.length) {
+                if (n == a.length) {
+                    if (n == MAX_BUFFER_SIZE) {
+                        throw new OutOfMemoryError("Token too long");
+                    }
+                    a = heap = Arrays.copyOf(a, (int) Math.min(2L * n, MAX_BUFFER_SIZE));
+                    buf = ByteBuffer.wrap(a);
+                } else {
+                    System.arraycopy(a, pos, a, 0, n);
+                }
+                pos = 0;
+                lim = n;
+            }
+            int r;
+            do {
+                r = source.read(a, lim, a.length - lim);
+            } while (r == 0);
+            if (r < 0) {
+                eof = true;
+                return false;
+            }
+            lim += r;
+            return true;
+        } catch (InterruptedIOException e) {
+            // not the end of input: the bytes kept are still there
+            throw new UncheckedIOException(e);
+        } catch (IOException e) {
+            lastException = e;
+            eof = true;
+            return false;
+        }
+    }
+
+    /**
+     * Maps the next window of the file, starting at {@code pos}. The window
+     * is at least twice as large as the bytes kept, so a token longer than
+     * one window is still mapped whole.
+     */
+    private boolean remap() {
+        try {
+            long start = base + pos;
+            if (base + lim == end) {
+                eof = true;
+                return false;
+            }
+            long length = Math.min(end - start, Math.max(MAP_WINDOW, 2L * (lim - pos)));
+            if (length > MAX_BUFFER_SIZE) {
+                if (lim - pos == MAX_BUFFER_SIZE) {
+                    throw new OutOfMemoryError("Token too long");
+                }
+                length = MAX_BUFFER_SIZE;
+            }
+            buf = file.map(FileChannel.MapMode.READ_ONLY, start, length);
+            base = start;
+            pos = 0;
+            lim = (int) length;
+            return true;
+        } catch (IOException e) {
+            lastException = e;
+            eof = true;
+            return false;
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Input closed");
+        }
+    }
+
+    /**
+     * Locates the beginning of the next token without consuming anything,
+     * setting {@code ts} to it.
+     *
+     * @return false if the input has no more tokens
+     */
+    private boolean tokenStart() {
+        ensureOpen();
+        boolean[] delimiters = this.delimiters;
+        int i = pos;
+        for (;;) {
+            if (i == lim) {
+                int k = i - pos;
+                if (!fill()) {
+                    return false;
+                }
+                i = pos + k;
+            }
+            if (!delimiters[buf.get(i) & 0xff]) {
+                break;
+            }
+            i++;
+            if (!collapse) {
+                // a single delimiter, after which a token starts, if empty
+                if (i == lim) {
+                    int k = i - pos;
+                    if (!fill()) {
+                        return false;
+                    }
+                    i = pos + k;
+                }
+                break;
+            }
+        }
+        ts = i;
+        return true;
+    }
+
+    /**
+     * Locates the next token without consuming it, setting {@code ts} and
+     * {@code te} to its bounds, unless it has been located already.
+     *
+     * @return false if the input has no more tokens
+     */
+    private boolean token() {
+        if (cachePos == pos) {
+            ts = cacheStart;
+            te = cacheEnd;
+            return true;
+        }
+        if (!tokenStart()) {
+            return false;
+        }
+        boolean[] delimiters = this.delimiters;
+        int start = ts - pos;
+        int i = ts;
+        for (;;) {
+            if (i == lim) {
+                int k = i - pos;
+                boolean more = fill();
+                i = pos + k;
+                if (!more) {
+                    break;
+                }
+            }
+            if (delimiters[buf.get(i) & 0xff]) {
+                break;
+            }
+            i++;
+        }
+        ts = pos + start;
+        te = i;
+        cachePos = pos;
+        cacheStart = ts;
+        cacheEnd = te;
+        cacheType = NONE;
+        return true;
+    }
+
+    /**
+     * Decodes the bytes from {@code from} to {@code to}. Under a multibyte
+     * charset other than UTF-8, ASCII bytes, the common case, are decoded as
+     * Latin-1, which yields the same characters in a compact string with a
+     * plain copy instead of a pass through the charset decoder. The JDK
+     * already decodes ASCII that way under UTF-8 and single byte charsets.
+     */
+    private String string(int from, int to) {
+        Charset cs = checkAscii && isAscii(from, to) ? StandardCharsets.ISO_8859_1 : charset;
+        if (buf.hasArray()) {
+            return new String(buf.array(), buf.arrayOffset() + from, to - from, cs);
+        }
+        byte[] b = new byte[to - from];
+        buf.get(from, b);
+        return new String(b, cs);
+    }
+
+    /**
+     * Returns true if the JDK decodes the specified charset through a general
+     * decoder: if it is a multibyte charset other than UTF-8.
+     */
+    private static boolean checkAscii(Charset charset) {
+        return !charset.equals(StandardCharsets.UTF_8) && charset.canEncode()
+                && charset.newEncoder().maxBytesPerChar() > 1;
+    }
+
+    /**
+     * Returns true if no byte from {@code from} to {@code to} has its high
+     * bit set, testing eight bytes at a time.
+     */
+    private boolean isAscii(int from, int to) {
+        long bits = 0;
+        int i = from;
+        for (; i <= to - 8; i += 8) {
+            bits |= buf.getLong(i);
+        }
+        for (; i < to; i++) {
+            bits |= buf.get(i);
+        }
+        return (bits & 0x8080808080808080L) == 0;
+    }
+
+    /**
+     * Returns the exception for input that has no more tokens. The delimiters
+     * left are skipped, as a {@code Scanner} does.
+     */
+    private NoSuchElementException noToken() {
+        pos = lim;
+        return new NoSuchElementException();
+    }
+
+    /**
+     * Returns the exception for the located token, which is left unread. The
+     * delimiters before it are skipped, as a {@code Scanner} does.
+     */
+    private InputMismatchException mismatch() {
+        pos = ts;
+        return new InputMismatchException("For input string: \"" + string(ts, te) + "\"");
+    }
+
+    private static int checkRadix(int radix) {
+        if (radix < Character.MIN_RADIX || radix > Character.MAX_RADIX) {
+            throw new IllegalArgumentException("radix:" + radix);
+        }
+        return radix;
+    }
+
+    /**
+     * Parses the current token as an integer in the range [min, max], in the
+     * manner of {@link Long#parseLong(String, int)}, and stores it in
+     * {@code value}.
+     *
+     * @return false if the token is not such an integer
+     */
+    private boolean parseLong(int radix, long min, long max) {
+        if (cacheType == INTEGER && cacheRadix == radix) {
+            return value >= min && value <= max;
+        }
+        int i = ts;
+        int to = te;
+        boolean negative = false;
+        if (i < to) {
+            int c = buf.get(i);
+            if (c == '-' || c == '+') {
+                negative = c == '-';
+                i++;
+            }
+        }
+        if (i == to) {
+            return false;
+        }
+        long limit = negative ? min : -max;
+        long multmin = limit / radix;
+        long result = 0;
+        for (; i < to; i++) {
+            int d = DIGIT[buf.get(i) & 0xff];
+            if (d < 0 || d >= radix || result < multmin) {
+                return false;
+            }
+            result *= radix;
+            if (result < limit + d) {
+                return false;
+            }
+            result -= d;
+        }
+        value = negative ? result : -result;
+        cacheType = INTEGER;
+        cacheRadix = radix;
+        return true;
+    }
+
+    private long nextLong(int radix, long min, long max) {
+        if (!token()) {
+            throw noToken();
+        }
+        if (!parseLong(radix, min, max)) {
+            throw mismatch();
+        }
+        pos = te;
+        return value;
+    }
+
+    private boolean hasNextLong(int radix, long min, long max) {
+        return token() && parseLong(radix, min, max);
+    }
+
+    /**
+     * Returns this tokenizer's default radix.
+     *
+     * @return the default radix
+     */
+    public int radix() {
+        return radix;
+    }
+
+    /**
+     * Sets this tokenizer's default radix.
+     *
+     * @param radix the radix to use when scanning numbers
+     * @throws IllegalArgumentException if radix is out of range
+     */
+    public void useRadix(int radix) {
+        this.radix = checkRadix(radix);
+    }
+
+    /**
+     * Returns the pattern matching the delimiters between tokens.
+     *
+     * @return the delimiter pattern
+     * @see io#delimiter()
+     */
+    public Pattern delimiter() {
+        return delimiter != null ? delimiter : DEFAULT_DELIMITER;
+    }
+
+    /**
+     * Sets the delimiter between tokens, if it is one this tokenizer can
+     * match byte by byte: a pattern matching a single ASCII character out of
+     * a set, or a run of such characters, such as {@code ","},
+     * {@code "\t"}, {@code "\|"}, {@code "[,;]"} or {@code "[ \t]+"}.
+     * Tokens are then delimited as a {@code Scanner} with this pattern would
+     * delimit them; in particular, two adjacent single delimiters surround
+     * an empty token.
+     *
+     * @param pattern the delimiter pattern
+     * @return false if the pattern is not such a pattern, in which case the
+     * delimiter is unchanged
+     * @see io#setDelimiter(Pattern)
+     */
+    public boolean useDelimiter(Pattern pattern) {
+        String regex = pattern.pattern();
+        boolean[] set = pattern.flags() == 0 ? characterSet(regex) : null;
+        boolean runs = false;
+        if (set == null && pattern.flags() == 0 && regex.endsWith("+")) {
+            set = characterSet(regex.substring(0, regex.length() - 1));
+            runs = true;
+        }
+        if (set == null) {
+            return false;
+        }
+        delimiters = set;
+        collapse = runs;
+        delimiter = pattern;
+        cachePos = -1;
+        return true;
+    }
+
+    /**
+     * Returns the ASCII characters matched by the specified regular
+     * expression if it matches exactly one character out of them: a
+     * character, an escape sequence or a class of those. Returns null for
+     * any other expression.
+     */
+    private static boolean[] characterSet(String regex) {
+        boolean[] set = new boolean[256];
+        int n = regex.length();
+        if (n >= 4 && regex.startsWith("\\Q") && regex.endsWith("\\E")) {
+            // Pattern.quote of a single character
+            return n == 5 && regex.charAt(2) < 0x80 ? add(set, regex.charAt(2)) : null;
+        }
+        if (n > 2 && regex.charAt(0) == '[' && regex.charAt(n - 1) == ']' && regex.charAt(1) != '^') {
+            int i = 1;
+            while (i < n - 1) {
+                int c = regex.charAt(i);
+                int length = 1;
+                if (c == '\\') {
+                    length = escapeLength(regex, i);
+                    if (length < 0) {
+                        return null;
+                    }
+                    if (escape(regex, i, set) >= 0) {
+                        i += length;
+                        continue;
+                    }
+                    c = escapedCharacter(regex, i);
+                } else if (c == '[' || c == '&' || c >= 0x80) {
+                    return null;
+                }
+                i += length;
+                if (i + 1 < n - 1 && regex.charAt(i) == '-') {
+                    int to = regex.charAt(i + 1);
+                    if (to == '\\' || to == '[' || to >= 0x80 || to < c) {
+                        return null;
+                    }
+                    for (int x = c; x <= to; x++) {
+                        set[x] = true;
+                    }
+                    i += 2;
+                } else {
+                    set[c] = true;
+                }
+            }
+            return set;
+        }
+        if (n == 1) {
+            char c = regex.charAt(0);
+            return c < 0x80 && "\\^$.|?*+()[]{}".indexOf(c) < 0 ? add(set, c) : null;
+        }
+        if (regex.charAt(0) == '\\' && escapeLength(regex, 0) == n) {
+            if (escape(regex, 0, set) >= 0) {
+                return set;
+            }
+            return add(set, escapedCharacter(regex, 0));
+        }
+        return null;
+    }
+
+    private static boolean[] add(boolean[] set, int c) {
+        set[c] = true;
+        return set;
+    }
+
+    /**
+     * Returns the length of the escape sequence at index {@code i}, or -1 if
+     * it is not one of those {@link #characterSet} accepts.
+     */
+    private static int escapeLength(String regex, int i) {
+        if (i + 1 >= regex.length()) {
+            return -1;
+        }
+        char c = regex.charAt(i + 1);
+        if ("tnrfae".indexOf(c) >= 0 || c == 's' || (c < 0x80 && !Character.isLetterOrDigit(c))) {
+            return 2;
+        }
+        if (c == 'x' && i + 4 <= regex.length()) {
+            return Character.digit(regex.charAt(i + 2), 16) >= 0 && Character.digit(regex.charAt(i + 3), 16) >= 0
+                    && Integer.parseInt(regex.substring(i + 2, i + 4), 16) < 0x80 ? 4 : -1;
+        }
+        if (regex.startsWith("p{javaWhitespace}", i + 1)) {
+            return 18;
+        }
+        return -1;
+    }
+
+    /**
+     * Adds to the set the characters of the escape sequence at index
+     * {@code i} if it stands for a class of characters, and returns its
+     * length, or returns -1 if it stands for a single character.
+     */
+    private static int escape(String regex, int i, boolean[] set) {
+        if (regex.charAt(i + 1) == 's') {
+            for (char c : " \t\n\u000B\f\r".toCharArray()) {
+                set[c] = true;
+            }
+            return 2;
+        }
+        if (regex.charAt(i + 1) == 'p') {
+            for (int c = 0; c < WHITESPACE.length; c++) {
+                set[c] |= WHITESPACE[c];
+            }
+            return 18;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the character of the escape sequence at index {@code i}, which
+     * stands for a single character.
+     */
+    private static int escapedCharacter(String regex, int i) {
+        char c = regex.charAt(i + 1);
+        switch (c) {
+            case 't':
+                return '\t';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 'f':
+                return '\f';
+            case 'a':
+                return '\u0007';
+            case 'e':
+                return '\u001B';
+            case 'x':
+                return Integer.parseInt(regex.substring(i + 2, i + 4), 16);
+            default:
+                return c;
+        }
+    }
+
+    /**
+     * Returns the {@code IOException} last thrown by the source, or
+     * {@code null} if no such exception exists.
+     *
+     * @return the last exception thrown by the source
+     */
+    public IOException ioException() {
+        return lastException;
+    }
+
+    /**
+     * Returns true if the input has another token.
+     *
+     * @see io#hasNext()
+     */
+    public boolean hasNext() {
+        return token();
+    }
+
+    /**
+     * Returns the next token.
+     *
+     * @see io#next()
+     */
+    public String next() {
+        if (!token()) {
+            throw noToken();
+        }
+        String s = string(ts, te);
+        pos = te;
+        return s;
+    }
+
+    /**
+     * Returns true if the input has another line.
+     *
+     * @see io#hasNextLine()
+     */
+    public boolean hasNextLine() {
+        ensureOpen();
+        return pos < lim || fill();
+    }
+
+    /**
+     * Returns the rest of the current line, excluding the line terminator
+     * ({@code "\n"}, {@code "\r\n"} or {@code "\r"}), and advances to the
+     * beginning of the next line.
+     *
+     * @return the line that was skipped
+     * @throws NoSuchElementException if no line was found
+     */
+    public String nextLine() {
+        ensureOpen();
+        int i = lineEnd();
+        String line = string(pos, i);
+        pos = skipLineSeparator(i);
+        return line;
+    }
+
+    /**
+     * Returns a view of the rest of the current line, excluding the line
+     * terminator, and advances to the beginning of the next line.
+     *
+     * @throws NoSuchElementException if no line was found
+     * @see #nextLine()
+     */
+    public ByteView nextLineView() {
+        ensureOpen();
+        int i = lineEnd();
+        int length = i - pos;
+        // reading past a '\r' may move the line, whose offset from pos holds
+        i = skipLineSeparator(i);
+        view.set(buf, pos, pos + length);
+        pos = i;
+        return view;
+    }
+
+    /**
+     * Returns a view of the next token, and advances past it.
+     *
+     * @throws NoSuchElementException if the input has no more tokens
+     * @see #next()
+     */
+    public ByteView nextView() {
+        if (!token()) {
+            throw noToken();
+        }
+        view.set(buf, ts, te);
+        pos = te;
+        return view;
+    }
+
+    /**
+     * Decodes the rest of the current line, excluding the line terminator,
+     * into a reused buffer of {@code CHUNK_SIZE} characters, passes the
+     * buffer to the action each time it fills and once more at the end of
+     * the line, and advances to the beginning of the next line. Bytes are
+     * consumed as they are decoded, so the input buffer does not grow
+     * however long the line is.
+     *
+     * @return the number of characters of the line
+     * @throws NoSuchElementException if no line was found
+     * @see #nextLine()
+     */
+    public long nextLineChunks(Consumer<? super CharBuffer> action) {
+        ensureOpen();
+        if (pos == lim && !fill()) {
+            throw new NoSuchElementException("No line found");
+        }
+        return chunks(action, true);
+    }
+
+    /**
+     * Decodes the next token into a reused buffer of {@code CHUNK_SIZE}
+     * characters, passing it to the action in the manner of
+     * {@link #nextLineChunks}, and advances past the token.
+     *
+     * @return the number of characters of the token
+     * @throws NoSuchElementException if the input has no more tokens
+     * @see #next()
+     */
+    public long nextChunks(Consumer<? super CharBuffer> action) {
+        if (!tokenStart()) {
+            throw noToken();
+        }
+        pos = ts;
+        return chunks(action, false);
+    }
+
+    /**
+     * Decodes the bytes from {@code pos} up to the next line terminator, or
+     * the next whitespace if {@code line} is false, into chunks, and
+     * advances past them, and past the line terminator if any.
+     */
+    private long chunks(Consumer<? super CharBuffer> action, boolean line) {
+        if (decoder == null) {
+            decoder = charset.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            chunk = CharBuffer.allocate(CHUNK_SIZE);
+        }
+        CharsetDecoder d = decoder.reset();
+        CharBuffer out = chunk.clear();
+        long length = 0;
+        boolean end;
+        int i = pos;
+        for (;;) {
+            for (; i < lim; i++) {
+                byte b = buf.get(i);
+                if (line ? b == '\n' || b == '\r' : delimiters[b & 0xff]) {
+                    break;
+                }
+            }
+            end = i < lim;
+            ByteBuffer in = buf.duplicate();
+            in.limit(i).position(pos);
+            while (d.decode(in, out, false).isOverflow()) {
+                length += emit(action, out);
+            }
+            // bytes of a character split by the end of the buffer are kept
+            int k = i - in.position();
+            pos = in.position();
+            if (end) {
+                break;
+            }
+            boolean more = fill();
+            i = pos + k;
+            if (!more) {
+                break;
+            }
+        }
+        ByteBuffer in = buf.duplicate();
+        in.limit(i).position(pos);
+        while (d.decode(in, out, true).isOverflow()) {
+            length += emit(action, out);
+        }
+        while (d.flush(out).isOverflow()) {
+            length += emit(action, out);
+        }
+        if (out.position() > 0) {
+            length += emit(action, out);
+        }
+        pos = line ? skipLineSeparator(i) : i;
+        return length;
+    }
+
+    /**
+     * Passes the characters decoded into {@code out} to the action, and
+     * empties it.
+     */
+    private static int emit(Consumer<? super CharBuffer> action, CharBuffer out) {
+        out.flip();
+        int n = out.remaining();
+        action.accept(out);
+        out.clear();
+        return n;
+    }
+
+    /**
+     * Returns the index of the line terminator ending the current line, or
+     * of the end of input.
+     *
+     * @throws NoSuchElementException if the input has no more lines
+     */
+    private int lineEnd() {
+        int i = pos;
+        for (;;) {
+            if (i == lim) {
+                int k = i - pos;
+                boolean more = fill();
+                i = pos + k;
+                if (!more) {
+                    break;
+                }
+            }
+            byte b = buf.get(i);
+            if (b == '\n' || b == '\r') {
+                break;
+            }
+            i++;
+        }
+        if (i == lim && i == pos) {
+            throw new NoSuchElementException("No line found");
+        }
+        return i;
+    }
+
+    /**
+     * Returns the index past the line terminator at {@code i}, if any.
+     * Offsets relative to {@code pos} are preserved, absolute indices are
+     * not.
+     */
+    private int skipLineSeparator(int i) {
+        if (i < lim && buf.get(i++) == '\r') {
+            if (i == lim) {
+                int k = i - pos;
+                fill();
+                i = pos + k;
+            }
+            if (i < lim && buf.get(i) == '\n') {
+                i++;
+            }
+        }
+        return i;
+    }
+
+    /**
+     * Returns true if the next token can be scanned as a {@code boolean}.
+     *
+     * @see io#hasNextBoolean()
+     */
+    public boolean hasNextBoolean() {
+        return token() && parseBoolean() >= 0;
+    }
+
+    /**
+     * Scans the next token as a {@code boolean}.
+     *
+     * @see io#nextBoolean()
+     */
+    public boolean nextBoolean() {
+        if (!token()) {
+            throw noToken();
+        }
+        int b = parseBoolean();
+        if (b < 0) {
+            throw mismatch();
+        }
+        pos = te;
+        return b == 1;
+    }
+
+    /**
+     * Interprets the current token as a boolean, ignoring case.
+     *
+     * @return 1 for true, 0 for false and -1 for any other token
+     */
+    private int parseBoolean() {
+        if (cacheType == BOOLEAN) {
+            return (int) value;
+        }
+        String word = te - ts == 4 ? "true" : te - ts == 5 ? "false" : null;
+        if (word == null) {
+            return -1;
+        }
+        for (int i = 0; i < word.length(); i++) {
+            if ((buf.get(ts + i) | 0x20) != word.charAt(i)) {
+                return -1;
+            }
+        }
+        value = word.length() == 4 ? 1 : 0;
+        cacheType = BOOLEAN;
+        return (int) value;
+    }
+
+    /**
+     * Returns true if the next token can be scanned as a {@code byte} in the
+     * default radix.
+     *
+     * @see io#hasNextByte()
+     */
+    public boolean hasNextByte() {
+        return hasNextLong(radix, Byte.MIN_VALUE, Byte.MAX_VALUE);
+    }
+
+    /**
+     * Returns true if the next token can be scanned as a {@code byte} in the
+     * specified radix.
+     *
+     * @see io#hasNextByte(int)
+     */
+    public boolean hasNextByte(int radix) {
+        return hasNextLong(checkRadix(radix), Byte.MIN_VALUE, Byte.MAX_VALUE);
+    }
+
+    /**
+     * Scans the next token as a {@code byte} in the default radix.
+     *
+     * @see io#nextByte()
+     */
+    public byte nextByte() {
+        return (byte) nextLong(radix, Byte.MIN_VALUE, Byte.MAX_VALUE);
+    }
+
+    /**
+     * Scans the next token as a {@code byte} in the specified radix.
+     *
+     * @see io#nextByte(int)
+     */
+    public byte nextByte(int radix) {
+        return (byte) nextLong(checkRadix(radix), Byte.MIN_VALUE, Byte.MAX_VALUE);
+    }
+
+    /**
+     * Returns true if the next token can be scanned as a {@code short} in the
+     * default radix.
+     *
+     * @see io#hasNextShort()
+     */
+    public boolean hasNextShort() {
+        return hasNextLong(radix, Short.MIN_VALUE, Short.MAX_VALUE);
+    }
+
+    /**
+     * Returns true if the next token can be scanned as a {@code short} in the
+     * specified radix.
+     *
+     * @see io#hasNextShort(int)
+     */
+    public boolean hasNextShort(int radix) {
+        return hasNextLong(checkRadix(radix), Short.MIN_VALUE, Short.MAX_VALUE);
+    }
+
+    /**
+     * Scans the next token as a {@code short} in the default radix.
+     *
+     * @see io#nextShort()
+     */
+    public short nextShort() {
+        return (short) nextLong(radix, Short.MIN_VALUE, Short.MAX_VALUE);
+    }
+
+    /**
+     * Scans the next token as a {@code short} in the specified radix.
+     *
+     * @see io#nextShort(int)
+     */
+    public short nextShort(int radix) {
+        return (short) nextLong(checkRadix(radix), Short.MIN_VALUE, Short.MAX_VALUE);
+    }
+
+    /**
+     * Returns true if the next token can be scanned as an {@code int} in the
+     * default radix.
+     *
+     * @see io#hasNextInt()
+     */
+    public boolean hasNextInt() {
+        return hasNextLong(radix, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns true if the next token can be scanned as an {@code int} in the
+     * specified radix.
+     *
+     * @see io#hasNextInt(int)
+     */
+    public boolean hasNextInt(int radix) {
+        return hasNextLong(checkRadix(radix), Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Scans the next token as an {@code int} in the default radix.
+     *
+     * @see io#nextInt()
+     */
+    public int nextInt() {
+        return (int) nextLong(radix, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Scans the next token as an {@code int} in the specified radix.
+     *
+     * @see io#nextInt(int)
+     */
+    public int nextInt(int radix) {
+        return (int) nextLong(checkRadix(radix), Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns true if the next token can be scanned as a {@code long} in the
+     * default radix.
+     *
+     * @see io#hasNextLong()
+     */
+    public boolean hasNextLong() {
+        return hasNextLong(radix, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Returns true if the next token can be scanned as a {@code long} in the
+     * specified radix.
+     *
+     * @see io#hasNextLong(int)
+     */
+    public boolean hasNextLong(int radix) {
+        return hasNextLong(checkRadix(radix), Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Scans the next token as a {@code long} in the default radix.
+     *
+     * @see io#nextLong()
+     */
+    public long nextLong() {
+        return nextLong(radix, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Scans the next token as a {@code long} in the specified radix.
+     *
+     * @see io#nextLong(int)
+     */
+    public long nextLong(int radix) {
+        return nextLong(checkRadix(radix), Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Parses the current token as a decimal or hexadecimal floating-point
+     * number, {@code NaN} or {@code Infinity}, as a {@code Scanner} would.
+     *
+     * @throws NumberFormatException if the token is not such a number
+     */
+    private double parseDouble() {
+        if (cacheType != DOUBLE) {
+            doubleValue = DoubleParser.parseDouble(buf, ts, te);
+            cacheType = DOUBLE;
+        }
+        return doubleValue;
+    }
+
+    /**
+     * Returns true if the next token can be scanned as a {@code double}.
+     *
+     * @see io#hasNextDouble()
+     */
+    public boolean hasNextDouble() {
+        if (!token()) {
+            return false;
+        }
+        try {
+            parseDouble();
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Scans the next token as a {@code double}.
+     *
+     * @see io#nextDouble()
+     */
+    public double nextDouble() {
+        if (!token()) {
+            throw noToken();
+        }
+        double d;
+        try {
+            d = parseDouble();
+        } catch (NumberFormatException e) {
+            throw mismatch();
+        }
+        pos = te;
+        return d;
+    }
+
+    /**
+     * Returns true if the next token can be scanned as a {@code float}.
+     *
+     * @see io#hasNextFloat()
+     */
+    public boolean hasNextFloat() {
+        if (!token()) {
+            return false;
+        }
+        try {
+            parseFloat();
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Scans the next token as a {@code float}.
+     *
+     * @see io#nextFloat()
+     */
+    public float nextFloat() {
+        if (!token()) {
+            throw noToken();
+        }
+        float f;
+        try {
+            f = parseFloat();
+        } catch (NumberFormatException e) {
+            throw mismatch();
+        }
+        pos = te;
+        return f;
+    }
+
+    private float parseFloat() {
+        if (cacheType != FLOAT) {
+            doubleValue = DoubleParser.parseFloat(buf, ts, te);
+            cacheType = FLOAT;
+        }
+        return (float) doubleValue;
+    }
+
+    /**
+     * Returns true if the next token can be scanned as a {@code BigInteger} in
+     * the default radix.
+     *
+     * @see io#hasNextBigInteger()
+     */
+    public boolean hasNextBigInteger() {
+        return hasNextBigInteger(radix);
+    }
+
+    /**
+     * Returns true if the next token can be scanned as a {@code BigInteger} in
+     * the specified radix.
+     *
+     * @see io#hasNextBigInteger(int)
+     */
+    public boolean hasNextBigInteger(int radix) {
+        checkRadix(radix);
+        return token() && parseBigInteger(radix) != null;
+    }
+
+    /**
+     * Parses the current token as a {@code BigInteger} in the specified
+     * radix.
+     *
+     * @return the value, or null if the token is not such an integer
+     */
+    private BigInteger parseBigInteger(int radix) {
+        if (cacheType == BIG_INTEGER && cacheRadix == radix) {
+            return (BigInteger) objectValue;
+        }
+        int i = ts;
+        if (i < te && (buf.get(i) == '-' || buf.get(i) == '+')) {
+            i++;
+        }
+        if (i == te) {
+            return null;
+        }
+        BigParser digits = new BigParser(radix);
+        for (; i < te; i++) {
+            int d = DIGIT[buf.get(i) & 0xff];
+            if (d < 0 || d >= radix) {
+                return null;
+            }
+            digits.add(d);
+        }
+        BigInteger v = digits.value();
+        objectValue = buf.get(ts) == '-' ? v.negate() : v;
+        cacheType = BIG_INTEGER;
+        cacheRadix = radix;
+        return (BigInteger) objectValue;
+    }
+
+    /**
+     * Scans the next token as a {@code BigInteger} in the default radix.
+     *
+     * @see io#nextBigInteger()
+     */
+    public BigInteger nextBigInteger() {
+        return nextBigInteger(radix);
+    }
+
+    /**
+     * Scans the next token as a {@code BigInteger}. The digits are consumed
+     * as they are read, so a token of any length is parsed without holding
+     * it whole in the buffer, and converted by {@link BigParser}. A mismatch
+     * found past the first buffer of a long token leaves the input positioned
+     * after the token.
+     */
+    public BigInteger nextBigInteger(int radix) {
+        checkRadix(radix);
+        if (cachePos == pos && cacheType == BIG_INTEGER && cacheRadix == radix) {
+            pos = cacheEnd;
+            return (BigInteger) objectValue;
+        }
+        if (!tokenStart()) {
+            throw noToken();
+        }
+        BigParser digits = new BigParser(radix);
+        boolean negative = false;
+        boolean committed = false;
+        int i = ts;
+        int sign = buf.get(i) & 0xff;
+        if ((sign == '-' || sign == '+') && !delimiters[sign]) {
+            negative = sign == '-';
+            i++;
+        }
+        for (;;) {
+            if (i == lim) {
+                if (lim - pos >= BUFFER_SIZE) {
+                    pos = i;
+                    committed = true;
+                }
+                int k = i - pos;
+                boolean more = fill();
+                i = pos + k;
+                if (!more) {
+                    break;
+                }
+            }
+            int b = buf.get(i) & 0xff;
+            if (delimiters[b]) {
+                break;
+            }
+            int d = DIGIT[b];
+            if (d < 0 || d >= radix) {
+                throw streamMismatch(committed);
+            }
+            digits.add(d);
+            i++;
+        }
+        if (digits.digits() == 0) {
+            throw streamMismatch(committed);
+        }
+        pos = i;
+        BigInteger v = digits.value();
+        return negative ? v.negate() : v;
+    }
+
+    /**
+     * Returns true if the next token can be scanned as a {@code BigDecimal}.
+     *
+     * @see io#hasNextBigDecimal()
+     */
+    public boolean hasNextBigDecimal() {
+        return token() && parseBigDecimal() != null;
+    }
+
+    /**
+     * Parses the current token as a {@code BigDecimal}.
+     *
+     * @return the value, or null if the token is not such a number
+     */
+    private BigDecimal parseBigDecimal() {
+        if (cacheType == BIG_DECIMAL) {
+            return (BigDecimal) objectValue;
+        }
+        int i = ts;
+        if (i < te && (buf.get(i) == '-' || buf.get(i) == '+')) {
+            i++;
+        }
+        BigParser digits = new BigParser(10);
+        long scale = 0;
+        for (; i < te && isDigit(buf.get(i)); i++) {
+            digits.add(buf.get(i) - '0');
+        }
+        if (i < te && buf.get(i) == '.') {
+            for (i++; i < te && isDigit(buf.get(i)); i++) {
+                digits.add(buf.get(i) - '0');
+                scale++;
+            }
+        }
+        if (digits.digits() == 0) {
+            return null;
+        }
+        if (i < te && (buf.get(i) | 0x20) == 'e') {
+            i++;
+            boolean negative = false;
+            if (i < te && (buf.get(i) == '-' || buf.get(i) == '+')) {
+                negative = buf.get(i) == '-';
+                i++;
+            }
+            if (i == te) {
+                return null;
+            }
+            long exponent = 0;
+            for (; i < te && isDigit(buf.get(i)); i++) {
+                if (exponent < Integer.MAX_VALUE) {
+                    exponent = 10 * exponent + buf.get(i) - '0';
+                }
+            }
+            scale -= negative ? -exponent : exponent;
+        }
+        if (i != te || scale < Integer.MIN_VALUE || scale > Integer.MAX_VALUE) {
+            return null;
+        }
+        BigInteger v = digits.value();
+        objectValue = new BigDecimal(buf.get(ts) == '-' ? v.negate() : v, (int) scale);
+        cacheType = BIG_DECIMAL;
+        return (BigDecimal) objectValue;
+    }
+
+    /**
+     * Scans the next token as a {@code BigDecimal}, in the manner of
+     * {@link #nextBigInteger(int)}: the digits of the unscaled value are
+     * consumed as they are read and converted by {@link BigParser}.
+     */
+    public BigDecimal nextBigDecimal() {
+        if (cachePos == pos && cacheType == BIG_DECIMAL) {
+            pos = cacheEnd;
+            return (BigDecimal) objectValue;
+        }
+        if (!tokenStart()) {
+            throw noToken();
+        }
+        BigParser digits = new BigParser(10);
+        boolean negative = false;
+        boolean committed = false;
+        long scale = 0;
+        long exponent = 0;
+        int exponentSign = 0;
+        /* 0: integer part, 1: fraction, 2: exponent sign, 3: exponent digits */
+        int state = 0;
+        int i = ts;
+        int sign = buf.get(i) & 0xff;
+        if ((sign == '-' || sign == '+') && !delimiters[sign]) {
+            negative = sign == '-';
+            i++;
+        }
+        for (;;) {
+            if (i == lim) {
+                if (lim - pos >= BUFFER_SIZE) {
+                    pos = i;
+                    committed = true;
+                }
+                int k = i - pos;
+                boolean more = fill();
+                i = pos + k;
+                if (!more) {
+                    break;
+                }
+            }
+            int b = buf.get(i) & 0xff;
+            if (delimiters[b]) {
+                break;
+            } else if (isDigit(b)) {
+                if (state < 2) {
+                    digits.add(b - '0');
+                    if (state == 1) {
+                        scale++;
+                    }
+                } else {
+                    if (exponent < Integer.MAX_VALUE) {
+                        exponent = 10 * exponent + b - '0';
+                    }
+                    state = 3;
+                }
+            } else if (b == '.' && state == 0) {
+                state = 1;
+            } else if ((b | 0x20) == 'e' && state < 2 && digits.digits() > 0) {
+                state = 2;
+                exponentSign = 1;
+            } else if ((b == '-' || b == '+') && state == 2 && exponentSign == 1) {
+                exponentSign = b == '-' ? -1 : 2;
+            } else {
+                throw streamMismatch(committed);
+            }
+            i++;
+        }
+        scale -= exponentSign < 0 ? -exponent : exponent;
+        if (digits.digits() == 0 || state == 2 || scale < Integer.MIN_VALUE || scale > Integer.MAX_VALUE) {
+            throw streamMismatch(committed);
+        }
+        pos = i;
+        BigInteger v = digits.value();
+        return new BigDecimal(negative ? v.negate() : v, (int) scale);
+    }
+
+    private static boolean isDigit(int b) {
+        return b >= '0' && b <= '9';
+    }
+
+    /**
+     * Returns the exception for a token that a streaming parse found
+     * invalid. If part of the token has been consumed, the rest of it is
+     * skipped too.
+     */
+    private InputMismatchException streamMismatch(boolean committed) {
+        if (!committed) {
+            token();
+            return mismatch();
+        }
+        int i = pos;
+        for (;;) {
+            if (i == lim) {
+                pos = i;
+                boolean more = fill();
+                i = pos;
+                if (!more) {
+                    break;
+                }
+            }
+            if (delimiters[buf.get(i) & 0xff]) {
+                break;
+            }
+            i++;
+        }
+        pos = i;
+        return new InputMismatchException("Invalid number");
+    }
+
+    /**
+     * Scans the next {@code len} tokens as {@code int} values in the default
+     * radix into {@code a}, starting at index {@code off}.
+     */
+    public void nextIntArray(int[] a, int off, int len) {
+        int radix = this.radix;
+        for (int i = off, end = off + len; i < end; i++) {
+            a[i] = (int) nextLong(radix, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        }
+    }
+
+    /**
+     * Scans the next {@code len} tokens as {@code long} values in the default
+     * radix into {@code a}, starting at index {@code off}.
+     */
+    public void nextLongArray(long[] a, int off, int len) {
+        int radix = this.radix;
+        for (int i = off, end = off + len; i < end; i++) {
+            a[i] = nextLong(radix, Long.MIN_VALUE, Long.MAX_VALUE);
+        }
+    }
+
+    /**
+     * Scans the next {@code len} tokens as {@code double} values into
+     * {@code a}, starting at index {@code off}.
+     */
+    public void nextDoubleArray(double[] a, int off, int len) {
+        for (int i = off, end = off + len; i < end; i++) {
+            a[i] = nextDouble();
+        }
+    }
+
+    /**
+     * Returns a reader of the following lines as records of fields separated
+     * by the specified character, which reads from this tokenizer.
+     *
+     * @param separator the character between fields, such as {@code ','} or
+     * {@code '\t'}
+     * @return a reader of records
+     * @throws IllegalArgumentException if the separator is not an ASCII
+     * character or is a quote or line terminator
+     * @see CsvReader
+     */
+    public CsvReader csv(char separator) {
+        return new CsvReader(this, separator);
+    }
+
+    /**
+     * Returns a reader of the following bytes as binary values in the
+     * specified byte order, which reads from this tokenizer.
+     *
+     * @param order the byte order of the values
+     * @return a reader of binary values
+     * @see BinaryReader
+     */
+    public BinaryReader binary(ByteOrder order) {
+        return new BinaryReader(this, order);
+    }
+
+    /**
+     * Returns a stream of the following tokens.
+     */
+    public Stream<String> tokens() {
+        return StreamSupport.stream(new InputSpliterator.Tokens(this), false);
+    }
+
+    /**
+     * Returns a stream of the {@code int} values scanned, in the default
+     * radix, from the following tokens, up to the first token that is not
+     * such a value or the end of input.
+     */
+    public IntStream ints() {
+        return StreamSupport.intStream(new InputSpliterator.Ints(this), false);
+    }
+
+    /**
+     * Returns a stream of the {@code long} values scanned, in the default
+     * radix, from the following tokens, up to the first token that is not
+     * such a value or the end of input.
+     */
+    public LongStream longs() {
+        return StreamSupport.longStream(new InputSpliterator.Longs(this), false);
+    }
+
+    /**
+     * Returns a stream of the {@code double} values scanned from the
+     * following tokens, up to the first token that is not such a value or the
+     * end of input.
+     */
+    public DoubleStream doubles() {
+        return StreamSupport.doubleStream(new InputSpliterator.Doubles(this), false);
+    }
+
+    /**
+     * Returns a stream of the matches of the specified pattern in the
+     * following lines, each line being matched separately.
+     */
+    public Stream<MatchResult> findAll(Pattern pattern) {
+        Objects.requireNonNull(pattern);
+        return StreamSupport.stream(new InputSpliterator.Matches(this, pattern), false);
+    }
+
+    /**
+     * Returns true if this tokenizer reads a region of a file, which can then
+     * be split into ranges read in parallel.
+     */
+    boolean isFile() {
+        return file != null;
+    }
+
+    /**
+     * Returns true if this tokenizer reads a region of a file that can be cut
+     * at any delimiter into ranges holding the same tokens. With a delimiter
+     * matching a single byte, a cut between two adjacent delimiters would
+     * lose the empty token between them, so such input is not split.
+     */
+    boolean splittable() {
+        return file != null && collapse;
+    }
+
+    /**
+     * Returns the position in the file of the first byte not consumed yet.
+     */
+    long position() {
+        return base + pos;
+    }
+
+    /**
+     * Returns the position in the file after the last byte of the input.
+     */
+    long end() {
+        return end;
+    }
+
+    /**
+     * Consumes all of the remaining input.
+     */
+    void skipAll() {
+        pos = lim;
+        eof = true;
+        cachePos = -1;
+    }
+
+    /*
+     * Access to the buffer for CsvReader and BinaryReader, which read in place:
+     * the bytes not consumed yet are those of buffer() from offset() to
+     * limit(), and refill() reads more in the manner of fill().
+     */
+    ByteBuffer buffer() {
+        return buf;
+    }
+
+    int offset() {
+        return pos;
+    }
+
+    int limit() {
+        return lim;
+    }
+
+    boolean refill() {
+        ensureOpen();
+        return fill();
+    }
+
+    /**
+     * Consumes the bytes of the buffer up to index {@code i}.
+     */
+    void consume(int i) {
+        pos = i;
+        cachePos = -1;
+    }
+
+    Charset charset() {
+        return charset;
+    }
+
+    /**
+     * Returns a tokenizer over the bytes of the same file from {@code start}
+     * to {@code end}, with the same settings as this one.
+     */
+    FastInput range(long start, long end) {
+        FastInput in = new FastInput(file, start, end, charset);
+        in.radix = radix;
+        in.delimiters = delimiters;
+        in.collapse = collapse;
+        in.delimiter = delimiter;
+        return in;
+    }
+
+    /**
+     * Returns the position of the first delimiter, or of the first byte after
+     * a line terminator if {@code lines} is true, at or after position
+     * {@code from} and before {@code to}, or {@code to} if there is none. A
+     * range of the file that starts or ends at such a position holds whole
+     * tokens, or whole lines.
+     *
+     * @throws IOException if the file cannot be read
+     */
+    long boundary(long from, long to, boolean lines) throws IOException {
+        ByteBuffer b = ByteBuffer.allocate(4096);
+        while (from < to) {
+            b.clear();
+            if (b.remaining() > to - from) {
+                b.limit((int) (to - from));
+            }
+            int n = file.read(b, from);
+            if (n <= 0) {
+                break;
+            }
+            for (int i = 0; i < n; i++) {
+                int c = b.get(i) & 0xff;
+                if (lines ? c == '\n' : delimiters[c]) {
+                    return lines ? from + i + 1 : from + i;
+                }
+            }
+            from += n;
+        }
+        return to;
+    }
+
+    /**
+     * Returns a stream over the input not consumed yet: the buffered bytes
+     * followed by the rest of the source. It is used to hand the input over
+     * to a {@code Scanner} when a method this class cannot serve is called.
+     *
+     * @return a stream over the remaining input
+     */
+    InputStream remaining() {
+        return new InputStream() {
+            @Override
+            public int read() {
+                if (pos == lim && !fill()) {
+                    return -1;
+                }
+                return buf.get(pos++) & 0xff;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                if (len == 0) {
+                    return 0;
+                }
+                if (pos == lim && !fill()) {
+                    return -1;
+                }
+                int n = Math.min(len, lim - pos);
+                buf.get(pos, b, off, n);
+                pos += n;
+                return n;
+            }
+
+            @Override
+            public void close() throws IOException {
+                FastInput.this.close();
+            }
+        };
+    }
+
+    /**
+     * Closes this tokenizer and its source. Further reads throw an
+     * {@code IllegalStateException}.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        cachePos = -1;
+        try {
+            if (file != null) {
+                file.close();
+            } else {
+                source.close();
+            }
+        } catch (IOException e) {
+            lastException = e;
+        }
+    }
+}
@@ -0,0 +1,422 @@
+package io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * Buffered output stream behind the {@code print} and {@code write} methods
+ * of {@link io} when buffered output is in use.
+ *
+ * <p>
+ * Everything written is appended to a large private buffer, which is written
+ * to the sink only when it is full or when {@link #flush} is called. Integers
+ * are formatted straight into the buffer two digits at a time, from a table
+ * of the pairs of decimal digits, and floating-point numbers with the
+ * shortest decimal that rounds back to them, with no intermediate string.
+ * Text is encoded with the platform's default charset, as
+ * {@code System.out} does, but runs of characters the charset encodes as
+ * single bytes of equal value, ASCII for UTF-8 and most others, are copied
+ * into the buffer one byte per character, with no encoder and no
+ * intermediate array; only the other characters go through the charset.
+ * Unlike {@code PrintStream}, no lock is taken, no line separator triggers a
+ * flush, and no writer layer stands between the caller and the buffer.
+ *
+ * <p>
+ * As with {@code PrintStream}, methods never throw an {@code IOException}:
+ * a failure of the sink sets an error state, reported by
+ * {@link #checkError}.
+ *
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @author pedro
+ */
+final class FastOutput extends OutputStream {
+
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes();
+
+    private static final byte[] TRUE = {'t', 'r', 'u', 'e'};
+    private static final byte[] FALSE = {'f', 'a', 'l', 's', 'e'};
+
+    /* "00" to "99", the two digits of each number below 100 */
+    private static final byte[] DIGIT_PAIRS = new byte[200];
+
+    static {
+        for (int i = 0; i < 100; i++) {
+            DIGIT_PAIRS[2 * i] = (byte) ('0' + i / 10);
+            DIGIT_PAIRS[2 * i + 1] = (byte) ('0' + i % 10);
+        }
+    }
+
+    private final OutputStream sink;
+    private final Charset charset;
+
+    /* characters below this one are encoded as a single byte of equal value */
+    private final int direct;
+
+    private final byte[] buf;
+    private int count;
+
+    private boolean error;
+
+    private final DoubleFormatter doubles = new DoubleFormatter();
+
+    /**
+     * Constructs a stream writing to the specified sink through a buffer of
+     * the specified size, encoding text with the specified charset.
+     *
+     * @param sink the stream to write to
+     * @param size the size of the buffer, at least 64
+     * @param charset the charset used to encode text
+     * @throws IllegalArgumentException if size is less than 64
+     */
+    FastOutput(OutputStream sink, int size, Charset charset) {
+        if (size < 64) {
+            throw new IllegalArgumentException("size:" + size);
+        }
+        this.sink = sink;
+        this.charset = charset;
+        this.direct = direct(charset);
+        this.buf = new byte[size];
+    }
+
+    /**
+     * Returns the character below which the specified charset encodes every
+     * character as the byte of equal value: 0x100 for ISO-8859-1, 0x80 for
+     * charsets extending US-ASCII, such as UTF-8, and 0 for any other.
+     */
+    private static int direct(Charset charset) {
+        if (charset.equals(StandardCharsets.ISO_8859_1)) {
+            return 0x100;
+        }
+        char[] ascii = new char[0x80];
+        for (int i = 0; i < ascii.length; i++) {
+            ascii[i] = (char) i;
+        }
+        byte[] b = new String(ascii).getBytes(charset);
+        if (b.length != ascii.length) {
+            return 0;
+        }
+        for (int i = 0; i < b.length; i++) {
+            if (b[i] != i) {
+                return 0;
+            }
+        }
+        return 0x80;
+    }
+
+    /**
+     * Makes room for at least {@code n} bytes, which must be at most the size
+     * of the buffer.
+     */
+    private void reserve(int n) {
+        if (count + n > buf.length) {
+            drain();
+        }
+    }
+
+    /**
+     * Writes the buffered bytes to the sink, without flushing it.
+     */
+    void drain() {
+        if (count > 0) {
+            try {
+                sink.write(buf, 0, count);
+            } catch (IOException e) {
+                error = true;
+            }
+            count = 0;
+        }
+    }
+
+    @Override
+    public void write(int b) {
+        if (count == buf.length) {
+            drain();
+        }
+        buf[count++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        Objects.checkFromIndexSize(off, len, b.length);
+        if (len > buf.length - count) {
+            drain();
+            if (len >= buf.length) {
+                try {
+                    sink.write(b, off, len);
+                } catch (IOException e) {
+                    error = true;
+                }
+                return;
+            }
+        }
+        System.arraycopy(b, off, buf, count, len);
+        count += len;
+    }
+
+    /**
+     * Writes the buffered bytes to the sink and flushes it.
+     */
+    @Override
+    public void flush() {
+        drain();
+        try {
+            sink.flush();
+        } catch (IOException e) {
+            error = true;
+        }
+    }
+
+    /**
+     * Flushes the stream and returns its error state.
+     *
+     * @return true if the sink has thrown an {@code IOException}
+     */
+    boolean checkError() {
+        flush();
+        return error;
+    }
+
+    void print(boolean b) {
+        write(b ? TRUE : FALSE, 0, b ? 4 : 5);
+    }
+
+    void print(char c) {
+        if (c < direct) {
+            write(c);
+        } else {
+            print(String.valueOf(c));
+        }
+    }
+
+    void print(int i) {
+        reserve(11);
+        if (i < 0) {
+            buf[count++] = '-';
+        } else {
+            i = -i;
+        }
+        // digits are taken from the negated value, which also holds MIN_VALUE
+        int end = count + digits(i);
+        int p = end;
+        while (i <= -100) {
+            int q = i / 100;
+            int r = 2 * (q * 100 - i);
+            buf[--p] = DIGIT_PAIRS[r + 1];
+            buf[--p] = DIGIT_PAIRS[r];
+            i = q;
+        }
+        if (i <= -10) {
+            buf[--p] = DIGIT_PAIRS[-2 * i + 1];
+            buf[--p] = DIGIT_PAIRS[-2 * i];
+        } else {
+            buf[--p] = (byte) ('0' - i);
+        }
+        count = end;
+    }
+
+    void print(long l) {
+        if (l == (int) l) {
+            print((int) l);
+            return;
+        }
+        reserve(20);
+        if (l < 0) {
+            buf[count++] = '-';
+        } else {
+            l = -l;
+        }
+        int end = count + digits(l);
+        int p = end;
+        while (l <= Integer.MIN_VALUE) {
+            long q = l / 100;
+            int r = (int) (2 * (q * 100 - l));
+            buf[--p] = DIGIT_PAIRS[r + 1];
+            buf[--p] = DIGIT_PAIRS[r];
+            l = q;
+        }
+        int i = (int) l;
+        while (i <= -100) {
+            int q = i / 100;
+            int r = 2 * (q * 100 - i);
+            buf[--p] = DIGIT_PAIRS[r + 1];
+            buf[--p] = DIGIT_PAIRS[r];
+            i = q;
+        }
+        if (i <= -10) {
+            buf[--p] = DIGIT_PAIRS[-2 * i + 1];
+            buf[--p] = DIGIT_PAIRS[-2 * i];
+        } else {
+            buf[--p] = (byte) ('0' - i);
+        }
+        count = end;
+    }
+
+    /**
+     * Returns the number of decimal digits of {@code -x}, where {@code x} is
+     * not positive.
+     */
+    private static int digits(int x) {
+        int p = -10;
+        for (int n = 1; n < 10; n++) {
+            if (x > p) {
+                return n;
+            }
+            p *= 10;
+        }
+        return 10;
+    }
+
+    /**
+     * Returns the number of decimal digits of {@code -x}, where {@code x} is
+     * not positive.
+     */
+    private static int digits(long x) {
+        long p = -10;
+        for (int n = 1; n < 19; n++) {
+            if (x > p) {
+                return n;
+            }
+            p *= 10;
+        }
+        return 19;
+    }
+
+    /**
+     * Prints the values from {@code a[off]} to {@code a[off + len - 1]}, each
+     * but the first preceded by the separator.
+     */
+    void print(int[] a, int off, int len, char separator) {
+        for (int i = off; i < off + len; i++) {
+            if (i > off) {
+                print(separator);
+            }
+            print(a[i]);
+        }
+    }
+
+    /**
+     * Prints the values from {@code a[off]} to {@code a[off + len - 1]}, each
+     * but the first preceded by the separator.
+     */
+    void print(long[] a, int off, int len, char separator) {
+        for (int i = off; i < off + len; i++) {
+            if (i > off) {
+                print(separator);
+            }
+            print(a[i]);
+        }
+    }
+
+    void print(float f) {
+        reserve(15);
+        count = doubles.format(f, buf, count);
+    }
+
+    void print(double d) {
+        reserve(24);
+        count = doubles.format(d, buf, count);
+    }
+
+    /**
+     * Prints the value rounded half up to the specified number of fractional
+     * digits, falling back to {@code String.format} for values the formatter
+     * does not handle.
+     */
+    void print(double d, int decimals) {
+        reserve(20);
+        int end = doubles.format(d, decimals, buf, count);
+        if (end < 0) {
+            print(DoubleFormatter.toString(d, decimals));
+        } else {
+            count = end;
+        }
+    }
+
+    /**
+     * Prints the characters from {@code s[start]} to {@code s[end - 1]}.
+     */
+    void print(char[] s, int start, int end) {
+        while (start < end) {
+            if (count == buf.length) {
+                drain();
+            }
+            int stop = start + Math.min(end - start, buf.length - count);
+            int p = count;
+            char c;
+            while (start < stop && (c = s[start]) < direct) {
+                buf[p++] = (byte) c;
+                start++;
+            }
+            count = p;
+            if (start < stop) {
+                int from = start;
+                while (start < end && s[start] >= direct) {
+                    start++;
+                }
+                byte[] b = new String(s, from, start - from).getBytes(charset);
+                write(b, 0, b.length);
+            }
+        }
+    }
+
+    /**
+     * Prints the characters from {@code s.charAt(start)} to
+     * {@code s.charAt(end - 1)}.
+     */
+    void print(CharSequence s, int start, int end) {
+        while (start < end) {
+            if (count == buf.length) {
+                drain();
+            }
+            int stop = start + Math.min(end - start, buf.length - count);
+            int p = count;
+            char c;
+            while (start < stop && (c = s.charAt(start)) < direct) {
+                buf[p++] = (byte) c;
+                start++;
+            }
+            count = p;
+            if (start < stop) {
+                int from = start;
+                while (start < end && s.charAt(start) >= direct) {
+                    start++;
+                }
+                byte[] b = s.subSequence(from, start).toString().getBytes(charset);
+                write(b, 0, b.length);
+            }
+        }
+    }
+
+    void print(char[] s) {
+        print(s, 0, s.length);
+    }
+
+    void print(String s) {
+        if (s == null) {
+            s = "null";
+        }
+        print(s, 0, s.length());
+    }
+
+    void println() {
+        write(LINE_SEPARATOR, 0, LINE_SEPARATOR.length);
+    }
+
+    /**
+     * Flushes the buffered bytes and closes the sink.
+     */
+    @Override
+    public void close() {
+        flush();
+        try {
+            sink.close();
+        } catch (IOException e) {
+            error = true;
+        }
+    }
+}
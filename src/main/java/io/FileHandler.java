@@ -0,0 +1,25 @@
+package io;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Reads one file for {@link io#readAll(java.util.Collection, int, FileHandler)},
+ * with a tokenizer opened for it, and computes a result from it.
+ *
+ * @param <R> the type of the result
+ * @author pedro
+ */
+@FunctionalInterface
+public interface FileHandler<R> {
+
+    /**
+     * Reads the specified file, whose tokenizer is closed on return.
+     *
+     * @param path the file
+     * @param in a tokenizer over the file
+     * @return the result for the file
+     * @throws IOException if the file cannot be processed
+     */
+    R handle(Path path, FastInput in) throws IOException;
+}
@@ -0,0 +1,568 @@
+package io;
+
+import java.nio.charset.Charset;
+import java.text.DecimalFormatSymbols;
+import java.util.ArrayList;
+import java.util.Formattable;
+import java.util.Formatter;
+import java.util.List;
+import java.util.Locale;
+import java.util.MissingFormatArgumentException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A format string of {@link java.util.Formatter} parsed once, for printing
+ * many lines with the same layout.
+ *
+ * <p>
+ * A template is obtained from {@link io#compileFormat(String)}. Its
+ * arguments are given either all at once, with {@link #print(Object...)},
+ * which behaves as {@link io#printf(String, Object...)}, or one by one with
+ * the {@code put} methods, which take primitive values with no boxing:
+ *
+ * <pre>{@code
+ * FormatTemplate row = io.compileFormat("%d %.3f %s%n");
+ * for (int i = 0; i < n; i++) {
+ *     row.put(id[i]).put(score[i]).put(name[i]);
+ * }
+ * }</pre>
+ *
+ * <p>
+ * The text between arguments is written as each argument is given, and the
+ * text after the last one when the last one is given, which completes the
+ * line and makes the next {@code put} start a new one. When buffered output
+ * is in use the template writes into the output buffer; otherwise a
+ * completed line is written to {@code System.out} at once.
+ *
+ * <p>
+ * The conversions {@code %d}, {@code %f}, {@code %s}, {@code %c} and
+ * {@code %b}, with a width and the {@code '-'} and {@code '0'} flags, are
+ * formatted by the template itself; any other specifier, any argument of a
+ * type the template does not format itself, and any {@code %f} value whose
+ * digits the template cannot reproduce exactly, as for large values before
+ * Java 19, is formatted by a {@code Formatter}, so the output is always the
+ * one of {@code printf}.
+ * Format strings with explicit argument indices are formatted whole by a
+ * {@code Formatter}.
+ *
+ * <p>
+ * A template is not thread-safe, except for {@link #print(Object...)}.
+ *
+ * @author pedro
+ */
+public final class FormatTemplate {
+
+    /* the format specifier syntax of java.util.Formatter */
+    private static final Pattern SPECIFIER = Pattern.compile(
+            "%(\\d+\\$)?([-#+ 0,(\\<]*)?(\\d+)?(\\.\\d+)?([tT])?([a-zA-Z%])");
+
+    private static final class Spec {
+
+        final String text;
+        final char conversion;
+        final boolean left;
+        final boolean zero;
+        final int width;
+        final int precision;
+
+        /* whether the template formats this specifier itself */
+        final boolean fast;
+
+        Spec(String text, char conversion, String flags, int width, int precision, boolean fast) {
+            this.text = text;
+            this.conversion = conversion;
+            this.left = flags.indexOf('-') >= 0;
+            this.zero = flags.indexOf('0') >= 0;
+            this.width = width;
+            this.precision = precision;
+            this.fast = fast;
+        }
+    }
+
+    private final String format;
+    private final Locale locale;
+    private final Charset charset = Charset.defaultCharset();
+
+    /* literals[i] precedes specs[i]; the last one follows the last spec */
+    private final byte[][] literals;
+
+    /* one per argument, or null if a Formatter formats the whole string */
+    private final Spec[] specs;
+
+    /* the number of arguments of a string formatted whole */
+    private final int arguments;
+
+    private final byte decimalSeparator;
+
+    private final byte[] scratch = new byte[32];
+    private final DoubleFormatter doubles = new DoubleFormatter();
+
+    /* arguments given so far with put */
+    private int next;
+    private Object[] pending;
+
+    /* writes to System.out when buffered output is not in use */
+    private FastOutput own;
+
+    /**
+     * Parses the format string.
+     *
+     * @throws java.util.IllegalFormatException if the format string is not
+     * valid
+     */
+    FormatTemplate(String format, Locale locale) {
+        this.format = format;
+        this.locale = locale;
+        DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(locale);
+        char separator = symbols.getDecimalSeparator();
+        boolean digits = symbols.getZeroDigit() == '0';
+        this.decimalSeparator = (byte) separator;
+        List<byte[]> literals = new ArrayList<>();
+        List<Spec> specs = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        boolean whole = false;
+        int arguments = 0;
+        int ordinary = 0;
+        Matcher m = SPECIFIER.matcher(format);
+        int i = 0;
+        while (i < format.length()) {
+            int p = format.indexOf('%', i);
+            if (p < 0) {
+                literal.append(format, i, format.length());
+                break;
+            }
+            literal.append(format, i, p);
+            m.region(p, format.length());
+            if (!m.lookingAt()) {
+                // an invalid specifier, reported below
+                whole = true;
+                break;
+            }
+            i = m.end();
+            String flags = m.group(2) == null ? "" : m.group(2);
+            char conversion = m.group(6).charAt(0);
+            if (conversion == '%' || conversion == 'n') {
+                literal.append(String.format(locale, m.group()));
+                continue;
+            }
+            if (m.group(1) != null) {
+                whole = true;
+                arguments = Math.max(arguments, Integer.parseInt(m.group(1).substring(0, m.group(1).length() - 1)));
+                continue;
+            }
+            if (flags.indexOf('<') >= 0) {
+                whole = true;
+                continue;
+            }
+            arguments = Math.max(arguments, ++ordinary);
+            int width = m.group(3) == null ? -1 : Integer.parseInt(m.group(3));
+            int precision = m.group(4) == null ? -1 : Integer.parseInt(m.group(4).substring(1));
+            boolean simple = m.group(5) == null && flags.replace("-", "").replace("0", "").isEmpty();
+            boolean fast;
+            switch (conversion) {
+                case 'd':
+                    fast = simple && digits && precision < 0;
+                    break;
+                case 'f':
+                    fast = simple && digits && separator < 0x80;
+                    break;
+                case 's':
+                case 'c':
+                case 'b':
+                    fast = simple && !flags.contains("0");
+                    break;
+                default:
+                    fast = false;
+            }
+            literals.add(literal.toString().getBytes(charset));
+            literal.setLength(0);
+            specs.add(new Spec(m.group(), conversion, flags, width, precision, fast));
+        }
+        literals.add(literal.toString().getBytes(charset));
+        // let Formatter report invalid specifiers, as printf would
+        new Formatter(new StringBuilder(), locale).format(format, new Object[arguments]);
+        this.literals = literals.toArray(new byte[0][]);
+        this.specs = whole ? null : specs.toArray(new Spec[0]);
+        this.arguments = arguments;
+    }
+
+    /**
+     * Returns the format string this template was compiled from.
+     *
+     * @return the format string
+     */
+    public String format() {
+        return format;
+    }
+
+    /**
+     * Returns the locale this template formats numbers for.
+     *
+     * @return the locale
+     */
+    public Locale locale() {
+        return locale;
+    }
+
+    private FastOutput sink() {
+        FastOutput out = io.output();
+        if (out != null) {
+            return out;
+        }
+        if (own == null) {
+            own = new FastOutput(System.out, 256, charset);
+        }
+        return own;
+    }
+
+    /**
+     * Prints the template with the specified arguments, in the manner of
+     * {@link io#printf(String, Object...)}. Arguments given with the
+     * {@code put} methods and not yet printed are discarded.
+     *
+     * @param args the arguments referenced by the format specifiers
+     * @throws java.util.IllegalFormatException if an argument does not suit
+     * its format specifier, or there are fewer arguments than specifiers
+     */
+    public synchronized void print(Object... args) {
+        next = 0;
+        FastOutput out = sink();
+        if (specs == null) {
+            out.print(String.format(locale, format, args));
+        } else {
+            if (args.length < specs.length) {
+                throw new MissingFormatArgumentException(specs[args.length].text);
+            }
+            for (int i = 0; i < specs.length; i++) {
+                byte[] literal = literals[i];
+                out.write(literal, 0, literal.length);
+                put(out, specs[i], args[i]);
+            }
+            byte[] literal = literals[specs.length];
+            out.write(literal, 0, literal.length);
+        }
+        if (out == own) {
+            own.drain();
+        }
+    }
+
+    /**
+     * Gives the next argument of the line.
+     *
+     * @param v the argument
+     * @return this template
+     * @throws java.util.IllegalFormatException if the argument does not suit
+     * its format specifier
+     */
+    public FormatTemplate put(int v) {
+        Spec s = advance();
+        if (s != null) {
+            if (s.fast && s.conversion == 'd') {
+                putLong(sink(), s, v);
+            } else {
+                put(sink(), s, v);
+            }
+            complete();
+        } else {
+            pend(v);
+        }
+        return this;
+    }
+
+    /**
+     * Gives the next argument of the line.
+     *
+     * @param v the argument
+     * @return this template
+     * @throws java.util.IllegalFormatException if the argument does not suit
+     * its format specifier
+     */
+    public FormatTemplate put(long v) {
+        Spec s = advance();
+        if (s != null) {
+            if (s.fast && s.conversion == 'd') {
+                putLong(sink(), s, v);
+            } else {
+                put(sink(), s, v);
+            }
+            complete();
+        } else {
+            pend(v);
+        }
+        return this;
+    }
+
+    /**
+     * Gives the next argument of the line.
+     *
+     * @param v the argument
+     * @return this template
+     * @throws java.util.IllegalFormatException if the argument does not suit
+     * its format specifier
+     */
+    public FormatTemplate put(double v) {
+        Spec s = advance();
+        if (s != null) {
+            if (!s.fast || s.conversion != 'f' || !putDouble(sink(), s, v)) {
+                put(sink(), s, v);
+            }
+            complete();
+        } else {
+            pend(v);
+        }
+        return this;
+    }
+
+    /**
+     * Gives the next argument of the line.
+     *
+     * @param v the argument
+     * @return this template
+     * @throws java.util.IllegalFormatException if the argument does not suit
+     * its format specifier
+     */
+    public FormatTemplate put(char v) {
+        Spec s = advance();
+        if (s != null) {
+            if (s.fast && s.conversion == 'c') {
+                putString(sink(), s, String.valueOf(v));
+            } else {
+                put(sink(), s, v);
+            }
+            complete();
+        } else {
+            pend(v);
+        }
+        return this;
+    }
+
+    /**
+     * Gives the next argument of the line.
+     *
+     * @param v the argument
+     * @return this template
+     * @throws java.util.IllegalFormatException if the argument does not suit
+     * its format specifier
+     */
+    public FormatTemplate put(boolean v) {
+        Spec s = advance();
+        if (s != null) {
+            if (s.fast && (s.conversion == 'b' || s.conversion == 's')) {
+                putString(sink(), s, v ? "true" : "false");
+            } else {
+                put(sink(), s, v);
+            }
+            complete();
+        } else {
+            pend(v);
+        }
+        return this;
+    }
+
+    /**
+     * Gives the next argument of the line.
+     *
+     * @param v the argument
+     * @return this template
+     * @throws java.util.IllegalFormatException if the argument does not suit
+     * its format specifier
+     */
+    public FormatTemplate put(Object v) {
+        Spec s = advance();
+        if (s != null) {
+            put(sink(), s, v);
+            complete();
+        } else {
+            pend(v);
+        }
+        return this;
+    }
+
+    /**
+     * Writes the text before the next specifier and returns it, or returns
+     * null if a Formatter formats the whole string.
+     */
+    private Spec advance() {
+        if (specs == null) {
+            return null;
+        }
+        if (specs.length == 0) {
+            next = 0;
+            return null;
+        }
+        byte[] literal = literals[next];
+        sink().write(literal, 0, literal.length);
+        return specs[next];
+    }
+
+    /**
+     * Moves past the specifier just written, writing the rest of the line if
+     * it was the last one.
+     */
+    private void complete() {
+        if (++next == specs.length) {
+            next = 0;
+            FastOutput out = sink();
+            byte[] literal = literals[specs.length];
+            out.write(literal, 0, literal.length);
+            if (out == own) {
+                own.drain();
+            }
+        }
+    }
+
+    /**
+     * Keeps an argument of a string formatted whole, printing the line once
+     * all of them are given.
+     */
+    private void pend(Object v) {
+        if (pending == null) {
+            pending = new Object[arguments];
+        }
+        if (arguments > 0) {
+            pending[next++] = v;
+        }
+        if (next == arguments) {
+            Object[] args = pending;
+            pending = null;
+            print(args);
+        }
+    }
+
+    /**
+     * Writes an argument of any type.
+     */
+    private void put(FastOutput out, Spec s, Object arg) {
+        if (s.fast) {
+            switch (s.conversion) {
+                case 'd':
+                    if (arg instanceof Integer || arg instanceof Long || arg instanceof Short
+                            || arg instanceof Byte) {
+                        putLong(out, s, ((Number) arg).longValue());
+                        return;
+                    }
+                    break;
+                case 'f':
+                    if ((arg instanceof Double || arg instanceof Float)
+                            && putDouble(out, s, ((Number) arg).doubleValue())) {
+                        return;
+                    }
+                    break;
+                case 's':
+                    if (!(arg instanceof Formattable)) {
+                        putString(out, s, String.valueOf(arg));
+                        return;
+                    }
+                    break;
+                case 'c':
+                    if (arg instanceof Character) {
+                        putString(out, s, arg.toString());
+                        return;
+                    }
+                    break;
+                case 'b':
+                    putString(out, s, arg == null ? "false" : arg instanceof Boolean ? arg.toString() : "true");
+                    return;
+                default:
+            }
+        }
+        out.print(String.format(locale, s.text, arg));
+    }
+
+    private void putLong(FastOutput out, Spec s, long v) {
+        int n = 0;
+        if (v < 0) {
+            scratch[n++] = '-';
+        } else {
+            v = -v;
+        }
+        int end = n + length(v);
+        for (int p = end; p > n;) {
+            long q = v / 10;
+            scratch[--p] = (byte) ('0' + (q * 10 - v));
+            v = q;
+        }
+        justify(out, s, end);
+    }
+
+    /**
+     * Writes a double, unless the formatter cannot handle it.
+     *
+     * @return false if nothing was written
+     */
+    private boolean putDouble(FastOutput out, Spec s, double v) {
+        int end = doubles.format(v, s.precision < 0 ? 6 : s.precision, scratch, 0);
+        if (end < 0) {
+            return false;
+        }
+        if (decimalSeparator != '.') {
+            for (int i = 0; i < end; i++) {
+                if (scratch[i] == '.') {
+                    scratch[i] = decimalSeparator;
+                }
+            }
+        }
+        justify(out, s, end);
+        return true;
+    }
+
+    private void putString(FastOutput out, Spec s, String v) {
+        if (s.precision >= 0 && s.precision < v.length()) {
+            v = v.substring(0, s.precision);
+        }
+        int pad = s.width - v.length();
+        if (pad > 0 && !s.left) {
+            spaces(out, pad);
+        }
+        out.print(v);
+        if (pad > 0 && s.left) {
+            spaces(out, pad);
+        }
+    }
+
+    /**
+     * Writes the first {@code n} bytes of the scratch buffer, padded to the
+     * width of the specifier.
+     */
+    private void justify(FastOutput out, Spec s, int n) {
+        int pad = s.width - n;
+        if (pad <= 0) {
+            out.write(scratch, 0, n);
+        } else if (s.left) {
+            out.write(scratch, 0, n);
+            spaces(out, pad);
+        } else if (s.zero) {
+            int sign = scratch[0] == '-' ? 1 : 0;
+            out.write(scratch, 0, sign);
+            for (int i = 0; i < pad; i++) {
+                out.write('0');
+            }
+            out.write(scratch, sign, n - sign);
+        } else {
+            spaces(out, pad);
+            out.write(scratch, 0, n);
+        }
+    }
+
+    private static void spaces(FastOutput out, int n) {
+        for (int i = 0; i < n; i++) {
+            out.write(' ');
+        }
+    }
+
+    /**
+     * Returns the number of decimal digits of {@code -x}, where {@code x} is
+     * not positive.
+     */
+    private static int length(long x) {
+        long p = -10;
+        for (int n = 1; n < 19; n++) {
+            if (x > p) {
+                return n;
+            }
+            p *= 10;
+        }
+        return 19;
+    }
+}
@@ -0,0 +1,244 @@
+package io;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+import java.util.regex.MatchResult;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Base of the spliterators behind the streams of {@link FastInput}.
+ *
+ * <p>
+ * A spliterator starts out reading from the tokenizer that created it, so a
+ * stream that is not split consumes the input exactly as the equivalent loop
+ * of {@code hasNext} and {@code next} calls would. When the tokenizer reads a
+ * region of a file, {@code trySplit} takes over the whole remaining region and
+ * cuts it in two at a delimiter, or at a line boundary for streams of lines,
+ * so each half holds whole elements and is read by a tokenizer of its own.
+ * Parallel streams can then parse the halves on separate cores.
+ *
+ * <p>
+ * Once split, a stream of numbers covers every remaining token, and one that
+ * is not a number of the type of the stream throws an
+ * {@code InputMismatchException} instead of ending the stream.
+ *
+ * @author pedro
+ */
+abstract class InputSpliterator {
+
+    /* ranges smaller than this are not split */
+    private static final long MIN_SPLIT = 1 << 20;
+
+    FastInput in;
+    boolean split;
+
+    private final boolean lines;
+
+    InputSpliterator(FastInput in, boolean split, boolean lines) {
+        this.in = in;
+        this.split = split;
+        this.lines = lines;
+    }
+
+    /**
+     * Cuts the range read by this spliterator in two, keeping the second half
+     * and returning a tokenizer over the first one.
+     *
+     * @return the tokenizer over the first half, or null if the range cannot
+     * be split
+     */
+    final FastInput splitPrefix() {
+        if (!in.splittable()) {
+            return null;
+        }
+        long start = in.position();
+        long end = in.end();
+        if (end - start < MIN_SPLIT) {
+            return null;
+        }
+        long mid;
+        try {
+            mid = in.boundary(start + (end - start) / 2, end, lines);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (mid >= end) {
+            return null;
+        }
+        FastInput prefix = in.range(start, mid);
+        in.skipAll();
+        in = in.range(mid, end);
+        split = true;
+        return prefix;
+    }
+
+    public final long estimateSize() {
+        return in.isFile() ? in.end() - in.position() : Long.MAX_VALUE;
+    }
+
+    public final int characteristics() {
+        return Spliterator.ORDERED | Spliterator.NONNULL;
+    }
+
+    static final class Tokens extends InputSpliterator implements Spliterator<String> {
+
+        Tokens(FastInput in) {
+            super(in, false, false);
+        }
+
+        private Tokens(FastInput in, boolean split) {
+            super(in, split, false);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super String> action) {
+            if (!in.hasNext()) {
+                return false;
+            }
+            action.accept(in.next());
+            return true;
+        }
+
+        @Override
+        public Spliterator<String> trySplit() {
+            FastInput prefix = splitPrefix();
+            return prefix == null ? null : new Tokens(prefix, true);
+        }
+    }
+
+    static final class Ints extends InputSpliterator implements Spliterator.OfInt {
+
+        Ints(FastInput in) {
+            super(in, false, false);
+        }
+
+        private Ints(FastInput in, boolean split) {
+            super(in, split, false);
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            if (in.hasNextInt()) {
+                action.accept(in.nextInt());
+                return true;
+            }
+            if (split && in.hasNext()) {
+                in.nextInt();
+            }
+            return false;
+        }
+
+        @Override
+        public Spliterator.OfInt trySplit() {
+            FastInput prefix = splitPrefix();
+            return prefix == null ? null : new Ints(prefix, true);
+        }
+    }
+
+    static final class Longs extends InputSpliterator implements Spliterator.OfLong {
+
+        Longs(FastInput in) {
+            super(in, false, false);
+        }
+
+        private Longs(FastInput in, boolean split) {
+            super(in, split, false);
+        }
+
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+            if (in.hasNextLong()) {
+                action.accept(in.nextLong());
+                return true;
+            }
+            if (split && in.hasNext()) {
+                in.nextLong();
+            }
+            return false;
+        }
+
+        @Override
+        public Spliterator.OfLong trySplit() {
+            FastInput prefix = splitPrefix();
+            return prefix == null ? null : new Longs(prefix, true);
+        }
+    }
+
+    static final class Doubles extends InputSpliterator implements Spliterator.OfDouble {
+
+        Doubles(FastInput in) {
+            super(in, false, false);
+        }
+
+        private Doubles(FastInput in, boolean split) {
+            super(in, split, false);
+        }
+
+        @Override
+        public boolean tryAdvance(DoubleConsumer action) {
+            if (in.hasNextDouble()) {
+                action.accept(in.nextDouble());
+                return true;
+            }
+            if (split && in.hasNext()) {
+                in.nextDouble();
+            }
+            return false;
+        }
+
+        @Override
+        public Spliterator.OfDouble trySplit() {
+            FastInput prefix = splitPrefix();
+            return prefix == null ? null : new Doubles(prefix, true);
+        }
+    }
+
+    static final class Matches extends InputSpliterator implements Spliterator<MatchResult> {
+
+        private final Pattern pattern;
+
+        /* matches of the last line read not yet given to an action */
+        private final ArrayDeque<MatchResult> pending = new ArrayDeque<>();
+
+        Matches(FastInput in, Pattern pattern) {
+            super(in, false, true);
+            this.pattern = pattern;
+        }
+
+        private Matches(FastInput in, Pattern pattern, boolean split) {
+            super(in, split, true);
+            this.pattern = pattern;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super MatchResult> action) {
+            while (pending.isEmpty()) {
+                if (!in.hasNextLine()) {
+                    return false;
+                }
+                Matcher m = pattern.matcher(in.nextLine());
+                while (m.find()) {
+                    pending.add(m.toMatchResult());
+                }
+            }
+            action.accept(pending.poll());
+            return true;
+        }
+
+        @Override
+        public Spliterator<MatchResult> trySplit() {
+            if (!pending.isEmpty()) {
+                return null;
+            }
+            FastInput prefix = splitPrefix();
+            return prefix == null ? null : new Matches(prefix, pattern, true);
+        }
+    }
+}
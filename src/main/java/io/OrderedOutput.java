@@ -0,0 +1,170 @@
+package io;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Merges the output of several threads in a fixed order.
+ *
+ * <p>
+ * Each thread writes the output of a chunk of work, numbered by the caller,
+ * to a buffer of its own, so printing takes no lock and involves no other
+ * thread. When the thread ends the chunk, its bytes are set aside until
+ * every chunk with a lower number has been written, and are then written to
+ * the merged output together with any chunks waiting for them. The output
+ * is thus the same whatever the number of threads and however they are
+ * scheduled, and the merge takes a lock once per chunk rather than once per
+ * call.
+ *
+ * <p>
+ * Output printed outside a chunk goes straight to the merged output, so it
+ * must not be printed while other threads have chunks open.
+ *
+ * @author pedro
+ */
+final class OrderedOutput {
+
+    /**
+     * The buffer of a thread: a stream over a byte array that grows as
+     * needed, behind a FastOutput and a PrintStream.
+     */
+    private static final class Chunk extends OutputStream {
+
+        final FastOutput out;
+        final PrintStream ps;
+        byte[] bytes = new byte[1 << 12];
+        int count;
+        long sequence = -1;
+
+        Chunk(Charset charset) {
+            out = new FastOutput(this, 1 << 12, charset);
+            ps = new PrintStream(out, false, charset);
+        }
+
+        @Override
+        public void write(int b) {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            if (count + len > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(2 * bytes.length, count + len));
+            }
+            System.arraycopy(b, off, bytes, count, len);
+            count += len;
+        }
+
+        /**
+         * Returns the bytes written since the chunk began, and empties it.
+         */
+        byte[] take() {
+            ps.flush();
+            out.drain();
+            byte[] b = Arrays.copyOf(bytes, count);
+            count = 0;
+            return b;
+        }
+    }
+
+    private final FastOutput out;
+    private final PrintStream ps;
+    private final ThreadLocal<Chunk> chunks;
+
+    /* chunks ended before some chunk with a lower number, by number */
+    private final Map<Long, byte[]> waiting = new HashMap<>();
+
+    /* the number of the next chunk to be written */
+    private long next;
+
+    /**
+     * Constructs a merger writing to the specified output.
+     *
+     * @param out the merged output
+     * @param ps a PrintStream over the merged output
+     * @param charset the charset used to encode text
+     */
+    OrderedOutput(FastOutput out, PrintStream ps, Charset charset) {
+        this.out = out;
+        this.ps = ps;
+        this.chunks = ThreadLocal.withInitial(() -> new Chunk(charset));
+    }
+
+    /**
+     * Returns the buffer of the chunk open in the calling thread, or the
+     * merged output if there is none.
+     */
+    FastOutput output() {
+        Chunk c = chunks.get();
+        return c.sequence >= 0 ? c.out : out;
+    }
+
+    /**
+     * Returns a PrintStream over the buffer returned by {@link #output}.
+     */
+    PrintStream printStream() {
+        Chunk c = chunks.get();
+        return c.sequence >= 0 ? c.ps : ps;
+    }
+
+    /**
+     * Makes the output of the calling thread go to the chunk with the
+     * specified number.
+     *
+     * @throws IllegalArgumentException if the number is negative
+     * @throws IllegalStateException if the thread already has a chunk open
+     */
+    void begin(long sequence) {
+        if (sequence < 0) {
+            throw new IllegalArgumentException("sequence:" + sequence);
+        }
+        Chunk c = chunks.get();
+        if (c.sequence >= 0) {
+            throw new IllegalStateException("Chunk " + c.sequence + " already open");
+        }
+        c.sequence = sequence;
+    }
+
+    /**
+     * Ends the chunk open in the calling thread, writing it and the chunks
+     * waiting for it if every chunk with a lower number has been written.
+     *
+     * @throws IllegalStateException if the thread has no chunk open, or a
+     * chunk with the same number was already ended
+     */
+    void end() {
+        Chunk c = chunks.get();
+        long sequence = c.sequence;
+        if (sequence < 0) {
+            throw new IllegalStateException("No chunk open");
+        }
+        byte[] b = c.take();
+        c.sequence = -1;
+        synchronized (this) {
+            if (sequence < next || waiting.putIfAbsent(sequence, b) != null) {
+                throw new IllegalStateException("Chunk " + sequence + " already ended");
+            }
+            while ((b = waiting.remove(next)) != null) {
+                out.write(b, 0, b.length);
+                next++;
+            }
+        }
+    }
+
+    /**
+     * Writes the chunks still waiting, in order of their numbers, and starts
+     * the numbering again from zero.
+     */
+    synchronized void reset() {
+        for (byte[] b : new TreeMap<>(waiting).values()) {
+            out.write(b, 0, b.length);
+        }
+        waiting.clear();
+        next = 0;
+    }
+}
@@ -0,0 +1,137 @@
+package io;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Runs a {@link FileHandler} over many files at once, behind
+ * {@link io#readAll(Collection, int, FileHandler)}.
+ *
+ * <p>
+ * Each file is read by a task of its own, run on a virtual thread when the
+ * runtime has them, and on a pool of as many platform threads as tasks may
+ * run at once otherwise. A semaphore bounds the number of tasks running, and
+ * so of files open, whatever the kind of thread; the caller waits for a
+ * permit before starting each task, so that no more tasks are queued than
+ * can run.
+ *
+ * @author pedro
+ */
+final class ParallelReader {
+
+    private ParallelReader() {
+    }
+
+    /**
+     * Returns an executor starting a virtual thread per task, looked up
+     * reflectively since it only exists from Java 21 on, or null if the
+     * runtime has none.
+     */
+    private static ExecutorService virtualThreads() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // before Java 21, or a preview not enabled
+            return null;
+        }
+    }
+
+    private static ExecutorService platformThreads(int threads) {
+        return Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "io-reader");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Applies the handler to each file, at most {@code parallelism} at a
+     * time, and returns the results in the order of the files.
+     */
+    static <R> List<R> readAll(Collection<Path> paths, int parallelism, FileHandler<? extends R> handler)
+            throws IOException {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism:" + parallelism);
+        }
+        List<Path> files = new ArrayList<>(paths);
+        AtomicReferenceArray<R> results = new AtomicReferenceArray<>(files.size());
+        List<Future<?>> tasks = new ArrayList<>(files.size());
+        Semaphore running = new Semaphore(parallelism);
+        AtomicBoolean failed = new AtomicBoolean();
+        ExecutorService threads = virtualThreads();
+        if (threads == null) {
+            threads = platformThreads(Math.min(parallelism, Math.max(files.size(), 1)));
+        }
+        try {
+            for (int i = 0; i < files.size(); i++) {
+                running.acquire();
+                if (failed.get()) {
+                    // no more files are opened once one has failed
+                    running.release();
+                    break;
+                }
+                int k = i;
+                Path path = files.get(k);
+                tasks.add(threads.submit(() -> {
+                    try (FastInput in = io.open(path)) {
+                        results.set(k, handler.handle(path, in));
+                    } catch (IOException | RuntimeException | Error e) {
+                        failed.set(true);
+                        throw e;
+                    } finally {
+                        running.release();
+                    }
+                    return null;
+                }));
+            }
+        } catch (InterruptedException e) {
+            tasks.forEach(t -> t.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while reading files");
+        } finally {
+            threads.shutdown();
+        }
+        Throwable failure = null;
+        for (Future<?> t : tasks) {
+            Throwable e;
+            try {
+                t.get();
+                continue;
+            } catch (ExecutionException x) {
+                e = x.getCause();
+            } catch (InterruptedException x) {
+                tasks.forEach(u -> u.cancel(true));
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while reading files");
+            }
+            if (failure == null) {
+                failure = e;
+            } else {
+                failure.addSuppressed(e);
+            }
+        }
+        if (failure instanceof IOException) {
+            throw (IOException) failure;
+        } else if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        } else if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        List<R> list = new ArrayList<>(files.size());
+        for (int i = 0; i < files.size(); i++) {
+            list.add(results.get(i));
+        }
+        return list;
+    }
+}
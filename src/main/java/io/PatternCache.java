@@ -0,0 +1,96 @@
+package io;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Bounded, thread-safe cache of compiled regular expressions, evicting the
+ * least recently used pattern when full.
+ *
+ * <p>
+ * It backs the methods of {@link io} that take a pattern as a
+ * {@code String}, so a loop calling them with a handful of distinct patterns
+ * compiles each pattern once. The hit and miss counters tell whether the
+ * capacity suits the patterns in use.
+ *
+ * @author pedro
+ */
+final class PatternCache {
+
+    private final LinkedHashMap<String, Pattern> map = new LinkedHashMap<>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Pattern> eldest) {
+            return size() > capacity;
+        }
+    };
+
+    private int capacity;
+    private long hits;
+    private long misses;
+
+    /**
+     * Constructs an empty cache holding at most {@code capacity} patterns.
+     *
+     * @param capacity the maximum number of patterns kept
+     * @throws IllegalArgumentException if capacity is negative
+     */
+    PatternCache(int capacity) {
+        resize(capacity);
+    }
+
+    /**
+     * Returns the pattern compiled from the specified regular expression,
+     * compiling it only if it is not in the cache.
+     *
+     * @param regex the expression to be compiled
+     * @return the compiled pattern
+     * @throws java.util.regex.PatternSyntaxException if the expression's
+     * syntax is invalid
+     */
+    Pattern get(String regex) {
+        synchronized (this) {
+            Pattern p = map.get(regex);
+            if (p != null) {
+                hits++;
+                return p;
+            }
+            misses++;
+        }
+        Pattern p = Pattern.compile(regex);
+        synchronized (this) {
+            map.put(regex, p);
+        }
+        return p;
+    }
+
+    /**
+     * Changes the maximum number of patterns kept, evicting the least
+     * recently used ones if there are more.
+     *
+     * @param capacity the maximum number of patterns kept
+     * @throws IllegalArgumentException if capacity is negative
+     */
+    synchronized void resize(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity:" + capacity);
+        }
+        this.capacity = capacity;
+        Iterator<Map.Entry<String, Pattern>> it = map.entrySet().iterator();
+        for (int n = map.size(); n > capacity; n--) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    synchronized long hits() {
+        return hits;
+    }
+
+    synchronized long misses() {
+        return misses;
+    }
+}
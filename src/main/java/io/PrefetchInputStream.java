@@ -0,0 +1,261 @@
+package io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Input stream that reads ahead of its consumer on a background thread.
+ *
+ * <p>
+ * A fixed set of buffers circulates between two queues: the reader thread
+ * takes an empty buffer, fills it from the source and hands it over, while
+ * the consumer drains the buffers handed over so far and gives each one back
+ * once it is empty. Reading from the source thus overlaps with whatever the
+ * consumer does with the bytes, and the reader runs at most as many buffers
+ * ahead as there are.
+ *
+ * <p>
+ * A {@link FastInput} over this stream does not read it: it borrows each
+ * buffer through {@link #lend} and parses it in place. Every buffer has room
+ * in front of its bytes for the end of a token or line split by the previous
+ * one, so that only those few bytes are copied again.
+ *
+ * <p>
+ * The end of the source, or an {@code IOException} thrown while reading it,
+ * is passed on to the consumer in order, after the bytes read before it.
+ * This class is not thread-safe on the consumer side.
+ *
+ * @author pedro
+ */
+final class PrefetchInputStream extends InputStream {
+
+    /**
+     * The room in front of the bytes of each buffer, for the bytes kept by
+     * {@link #lend}.
+     */
+    static final int HEADROOM = 1 << 12;
+
+    /**
+     * A buffer whose bytes are read from index {@code HEADROOM} to
+     * {@code limit}, which is -1 at the end of the source, where
+     * {@code error} holds the exception that ended it, if any.
+     */
+    private static final class Block {
+
+        final byte[] data;
+        int limit;
+        IOException error;
+
+        Block(int size) {
+            data = new byte[HEADROOM + size];
+        }
+    }
+
+    private final InputStream source;
+    private final BlockingQueue<Block> empty;
+    private final BlockingQueue<Block> full;
+    private final Thread reader;
+
+    /*
+     * the block being drained, or lent if pos is its limit, and the index of
+     * its next byte
+     */
+    private Block block;
+    private int pos;
+
+    private volatile boolean closed;
+
+    /**
+     * Constructs a stream reading ahead from the specified source, and starts
+     * its reader thread.
+     *
+     * @param source the stream to read from
+     * @param buffers the number of buffers, at least 2
+     * @param size the size of each buffer
+     * @throws IllegalArgumentException if buffers is less than 2 or size is
+     * not positive
+     */
+    PrefetchInputStream(InputStream source, int buffers, int size) {
+        if (buffers < 2) {
+            throw new IllegalArgumentException("buffers:" + buffers);
+        }
+        if (size <= 0) {
+            throw new IllegalArgumentException("size:" + size);
+        }
+        this.source = source;
+        this.empty = new ArrayBlockingQueue<>(buffers);
+        this.full = new ArrayBlockingQueue<>(buffers);
+        for (int i = 0; i < buffers; i++) {
+            empty.add(new Block(size));
+        }
+        this.reader = new Thread(this::readAhead, "io-prefetch");
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    /**
+     * Body of the reader thread. Each buffer is filled until it is full or
+     * the source has no more bytes available without blocking, so bytes are
+     * handed over as soon as they arrive on a slow source and in whole
+     * buffers on a fast one.
+     */
+    private void readAhead() {
+        try {
+            while (!closed) {
+                Block b = empty.take();
+                int n = HEADROOM;
+                try {
+                    int r = 0;
+                    while (n < b.data.length && (n == HEADROOM || source.available() > 0)
+                            && (r = source.read(b.data, n, b.data.length - n)) >= 0) {
+                        n += r;
+                    }
+                    if (n == HEADROOM && r < 0) {
+                        n = -1;
+                    }
+                } catch (IOException e) {
+                    b.error = e;
+                    n = -1;
+                }
+                b.limit = n;
+                full.put(b);
+                if (n < 0) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            // closed
+        }
+    }
+
+    /**
+     * Makes {@code block} a block with bytes left to read, waiting for the
+     * reader thread if necessary.
+     *
+     * @return false at the end of the source
+     * @throws IOException if the source threw it
+     */
+    private boolean next() throws IOException {
+        if (block != null) {
+            if (block.limit < 0) {
+                if (block.error != null) {
+                    throw block.error;
+                }
+                return false;
+            }
+            if (pos < block.limit) {
+                return true;
+            }
+            empty.add(block);
+            block = null;
+        }
+        block = take();
+        pos = HEADROOM;
+        return next();
+    }
+
+    /**
+     * Waits for the next block filled by the reader thread.
+     *
+     * @throws InterruptedIOException if the current thread is interrupted
+     * while waiting, with its interrupt status set again
+     */
+    private Block take() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        try {
+            return full.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        }
+    }
+
+    /**
+     * Lends the next bytes of the stream to be parsed in place: returns a
+     * buffer over the array of a block, whose bytes from its position to its
+     * limit are the {@code n} bytes of {@code kept} from index {@code from},
+     * copied in front of the bytes of the block, followed by those. The block
+     * lent before is given back to the reader thread, and must no longer be
+     * read, unless null is returned.
+     *
+     * @param kept the array holding the bytes to keep
+     * @param from the index of the first byte to keep
+     * @param n the number of bytes to keep, at most {@link #HEADROOM}
+     * @return the buffer, or null at the end of the source
+     * @throws InterruptedIOException if the current thread is interrupted
+     * while waiting, in which case nothing is lent or given back
+     * @throws IOException if the source threw it
+     */
+    ByteBuffer lend(byte[] kept, int from, int n) throws IOException {
+        Block b = block;
+        Block drained = null;
+        if (b == null || b.limit >= 0 && pos == b.limit) {
+            drained = b;
+            b = take();
+            block = b;
+            pos = HEADROOM;
+        }
+        if (b.limit < 0) {
+            if (b.error != null) {
+                throw b.error;
+            }
+            return null;
+        }
+        // the kept bytes may be those of the drained block, given back after
+        System.arraycopy(kept, from, b.data, pos - n, n);
+        if (drained != null) {
+            empty.add(drained);
+        }
+        ByteBuffer lent = ByteBuffer.wrap(b.data, pos - n, b.limit - pos + n);
+        pos = b.limit;
+        return lent;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!next()) {
+            return -1;
+        }
+        return block.data[pos++] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, b.length);
+        if (len == 0) {
+            return 0;
+        }
+        if (!next()) {
+            return -1;
+        }
+        int n = Math.min(len, block.limit - pos);
+        System.arraycopy(block.data, pos, b, off, n);
+        pos += n;
+        return n;
+    }
+
+    @Override
+    public int available() {
+        return block == null || block.limit < 0 ? 0 : block.limit - pos;
+    }
+
+    /**
+     * Stops the reader thread and closes the source.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        reader.interrupt();
+        source.close();
+    }
+}
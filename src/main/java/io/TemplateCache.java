@@ -0,0 +1,85 @@
+package io;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Bounded cache of the templates of the format strings given to
+ * {@link io#printf(String, Object...)} and {@link io#format(String, Object...)}
+ * in buffered output mode, keyed by format string and locale, evicting the
+ * least recently used template when full.
+ *
+ * <p>
+ * Each thread has templates of its own, so that threads printing at once in
+ * ordered output mode never wait for one another on a shared template.
+ *
+ * @author pedro
+ */
+final class TemplateCache {
+
+    private static final class Key {
+
+        final String format;
+        final Locale locale;
+
+        Key(String format, Locale locale) {
+            this.format = format;
+            this.locale = locale;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key k = (Key) obj;
+            return format.equals(k.format) && locale.equals(k.locale);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * format.hashCode() + locale.hashCode();
+        }
+    }
+
+    private final int capacity;
+
+    private final ThreadLocal<Map<Key, FormatTemplate>> maps = ThreadLocal.withInitial(() -> new LinkedHashMap<>(16,
+            0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, FormatTemplate> eldest) {
+            return size() > capacity;
+        }
+    });
+
+    /**
+     * Constructs an empty cache holding at most {@code capacity} templates per
+     * thread.
+     *
+     * @param capacity the maximum number of templates kept by each thread
+     */
+    TemplateCache(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Returns the template of the specified format string for the specified
+     * locale, compiling it only if the current thread has not got it.
+     *
+     * @throws java.util.IllegalFormatException if the format string is not
+     * valid
+     */
+    FormatTemplate get(String format, Locale locale) {
+        Map<Key, FormatTemplate> map = maps.get();
+        Key key = new Key(format, locale);
+        FormatTemplate t = map.get(key);
+        if (t == null) {
+            t = new FormatTemplate(format, locale);
+            map.put(key, t);
+        }
+        return t;
+    }
+}
@@ -1,26 +1,52 @@
 package io;
 
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.PrintStream;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.Collection;
 import java.util.InputMismatchException;
+import java.util.List;
 import java.util.Locale;
+import java.util.Objects;
 import java.util.NoSuchElementException;
 import java.util.Scanner;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
 import java.util.regex.MatchResult;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Wrapper class that encapsulates as static methods the public methods of the
  * Java SE System.out and Scanner objects.
  *
  * <p>
- * This class has a reference to a static final Scanner object that reads from
- * standard input (System.in) and a referente to standard object System.out.
+ * This class has a reference to a Scanner object that reads from standard
+ * input (System.in), created when first needed, and a reference to the
+ * standard object System.out.
  *
  * <p>
  * Each public static method in this class represents a public method of Scanner
@@ -30,15 +56,266 @@ import java.util.stream.Stream;
  * The purpose of this class is to make calls to Scanner and System.out methods
  * simpler and less verbose to read and write from standard input and output.
  *
+ * <p>
+ * After a call to {@link #useFastInput}, the {@code next} and {@code hasNext}
+ * methods for tokens, lines and primitive values are served by a byte-level
+ * tokenizer instead of the Scanner, which is much faster on large inputs.
+ * Likewise, after a call to {@link #useBufferedOutput}, the {@code print}
+ * methods write to a private buffer instead of to {@code System.out}.
+ *
  * @author pedro
  */
 public final class io {
 
-    private static final Scanner SCN = new Scanner(System.in);
+    private static Scanner SCN;
+
+    /* the fast tokenizer, or null when input is read through SCN */
+    private static FastInput IN;
+
+    /* the little-endian reader of IN for the LE methods, created on first use */
+    private static BinaryReader LE;
+
+    /* the buffered output, or null when output is written to System.out */
+    private static FastOutput OUT;
+
+    /* a PrintStream over OUT, for the methods that return one */
+    private static PrintStream PS;
+
+    /* the merger of per-thread chunks, or null when not in ordered mode */
+    private static OrderedOutput ORDERED;
+
+    /* patterns given as strings to the methods below */
+    private static final PatternCache PATTERNS = new PatternCache(64);
+
+    /* format strings given to printf and format in buffered output mode */
+    private static final TemplateCache TEMPLATES = new TemplateCache(64);
 
     private io() {
     }
 
+    /**
+     * Returns the Scanner reading from standard input, creating it on first
+     * use. If fast input is in use, the input it has not consumed yet is
+     * handed over to the new Scanner, which serves every input method from
+     * then on.
+     */
+    private static Scanner scanner() {
+        if (SCN == null) {
+            FastInput in = IN;
+            IN = null;
+            SCN = in == null ? new Scanner(System.in)
+                    : new Scanner(in.remaining()).useRadix(in.radix()).useDelimiter(in.delimiter());
+        }
+        return SCN;
+    }
+
+    /**
+     * Returns the buffer output is written to by the calling thread: the
+     * buffer of its chunk in ordered output mode, or else the buffered
+     * output, or null if output is written to System.out.
+     */
+    static FastOutput output() {
+        return ORDERED != null ? ORDERED.output() : OUT;
+    }
+
+    /**
+     * Returns the stream output is written to: System.out, or a PrintStream
+     * over the buffered output if it is in use.
+     */
+    private static PrintStream out() {
+        if (ORDERED != null) {
+            return ORDERED.printStream();
+        }
+        return OUT != null ? PS : System.out;
+    }
+
+    /**
+     * Makes the output methods write to standard output through a private
+     * buffer of 1 MiB.
+     *
+     * @see #useBufferedOutput(int)
+     */
+    public static void useBufferedOutput() {
+        useBufferedOutput(1 << 20);
+    }
+
+    /**
+     * Makes the output methods write to standard output through a private
+     * buffer of the specified size, instead of through {@code System.out}.
+     *
+     * <p>
+     * In this mode, the {@code print}, {@code println} and {@code write}
+     * methods append to the buffer with no lock, no intermediate writer and
+     * no flush at line separators, and numbers are formatted straight into
+     * the buffer. A {@code double} or {@code float} is printed with the
+     * shortest decimal that rounds back to it, as
+     * {@link Double#toString(double)} does from Java 19 on; earlier releases
+     * sometimes print one more digit. The buffer is written to standard
+     * output only when it is full, when {@link #flush} is called, and when
+     * the virtual machine shuts down. Methods that return a
+     * {@code PrintStream}, such as {@link #printf(String, Object...)}, write
+     * to the same buffer through a {@code PrintStream} over it, which they
+     * return.
+     *
+     * <p>
+     * Output written to {@code System.out} directly is not ordered with
+     * output written through this class, so it should be avoided or preceded
+     * by a call to {@link #flush}. Output methods should not be called
+     * concurrently from several threads in this mode.
+     *
+     * <p>
+     * This method has no effect if buffered output is already in use.
+     *
+     * @param size the size of the buffer in bytes, at least 64
+     * @throws IllegalArgumentException if size is less than 64
+     */
+    public static void useBufferedOutput(int size) {
+        if (OUT != null) {
+            return;
+        }
+        useOutput(new FastOutput(new FileOutputStream(FileDescriptor.out), size, Charset.defaultCharset()));
+    }
+
+    /**
+     * Makes the output methods write to standard output through a writer
+     * thread and a ring buffer of 4 MiB, parking when it is full.
+     *
+     * @see #useAsyncOutput(int, boolean)
+     */
+    public static void useAsyncOutput() {
+        useAsyncOutput(1 << 22, false);
+    }
+
+    /**
+     * Makes the output methods write to standard output through a dedicated
+     * writer thread, so that the calling thread never waits for a slow
+     * consumer of standard output unless it falls behind by more than the
+     * specified capacity.
+     *
+     * <p>
+     * This mode works as the one of {@link #useBufferedOutput(int)}, except
+     * that a full buffer is copied into a ring buffer of the specified
+     * capacity, with no lock, instead of being written to standard output.
+     * A writer thread drains the ring buffer to standard output with large
+     * writes. When the ring buffer is full, the calling thread either parks
+     * until the writer thread frees room, or spins if {@code spin} is true,
+     * which reacts faster at the cost of a busy core.
+     *
+     * <p>
+     * {@link #flush} waits until everything printed before it has been
+     * written to standard output, and so does the shutdown of the virtual
+     * machine. Output methods should be called from a single thread at a
+     * time in this mode.
+     *
+     * <p>
+     * This method has no effect if buffered output is already in use.
+     *
+     * @param capacity the capacity of the ring buffer in bytes
+     * @param spin whether to spin rather than park while the ring buffer is
+     * full
+     * @throws IllegalArgumentException if capacity is not positive
+     */
+    public static void useAsyncOutput(int capacity, boolean spin) {
+        if (OUT != null) {
+            return;
+        }
+        OutputStream ring = new AsyncOutputStream(new FileOutputStream(FileDescriptor.out), capacity, spin);
+        useOutput(new FastOutput(ring, 1 << 16, Charset.defaultCharset()));
+    }
+
+    /**
+     * Makes the output methods write to the specified stream, which is
+     * flushed when the virtual machine shuts down.
+     */
+    private static void useOutput(FastOutput out) {
+        System.out.flush();
+        PS = new PrintStream(out, false, Charset.defaultCharset());
+        OUT = out;
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            if (ORDERED != null) {
+                ORDERED.reset();
+            }
+            flush();
+        }, "io-flush"));
+    }
+
+    /**
+     * Makes the output of several threads appear in a fixed order, given by
+     * numbered chunks, whatever the order in which the threads run.
+     *
+     * <p>
+     * In this mode, a thread calls {@link #beginChunk(long)} with the number
+     * of a chunk of work, prints its output with the methods of this class,
+     * and calls {@link #endChunk()}. The output of the chunk goes to a buffer
+     * private to the thread, with no lock and no contention with other
+     * threads, and is written when the chunk ends, right after the chunks
+     * with lower numbers. Chunks are numbered from zero, with no gaps: a
+     * chunk is held until every chunk before it has ended. For example, the
+     * following prints the lines in order of {@code i}:
+     * <pre>{@code
+     * io.useOrderedOutput();
+     * IntStream.range(0, n).parallel().forEach(i -> {
+     *     io.beginChunk(i);
+     *     io.println(solve(i));
+     *     io.endChunk();
+     * });
+     * }</pre>
+     *
+     * <p>
+     * Output printed by a thread with no chunk open is written directly, so
+     * it should only be printed while no chunk is open, such as before and
+     * after a parallel computation. This mode uses buffered output, which is
+     * put in use with a buffer of 1 MiB if it is not in use already.
+     *
+     * <p>
+     * If ordered output is already in use, the chunks still held are written
+     * in order of their numbers and numbering starts again from zero, which
+     * allows a second parallel computation to number its chunks from zero.
+     *
+     * @see #useBufferedOutput(int)
+     */
+    public static void useOrderedOutput() {
+        useBufferedOutput();
+        if (ORDERED != null) {
+            ORDERED.reset();
+        } else {
+            ORDERED = new OrderedOutput(OUT, PS, Charset.defaultCharset());
+        }
+    }
+
+    /**
+     * Makes the output of the calling thread go to the chunk with the
+     * specified number, until {@link #endChunk()} is called.
+     *
+     * @param sequence the number of the chunk, from zero
+     * @throws IllegalArgumentException if sequence is negative
+     * @throws IllegalStateException if ordered output is not in use, or the
+     * calling thread already has a chunk open
+     * @see #useOrderedOutput()
+     */
+    public static void beginChunk(long sequence) {
+        if (ORDERED == null) {
+            throw new IllegalStateException("Ordered output not in use");
+        }
+        ORDERED.begin(sequence);
+    }
+
+    /**
+     * Ends the chunk open in the calling thread. Its output is written once
+     * every chunk with a lower number has ended.
+     *
+     * @throws IllegalStateException if ordered output is not in use, the
+     * calling thread has no chunk open, or a chunk with the same number has
+     * already ended
+     * @see #useOrderedOutput()
+     */
+    public static void endChunk() {
+        if (ORDERED == null) {
+            throw new IllegalStateException("Ordered output not in use");
+        }
+        ORDERED.end();
+    }
+
     /**
      * Flushes the stream. This is done by writing any buffered output bytes to
      * the underlying output stream and then flushing that stream.
@@ -46,7 +323,12 @@ public final class io {
      * @see java.io.OutputStream#flush()
      */
     public static void flush() {
-        System.out.flush();
+        FastOutput out = output();
+        if (out != null) {
+            out.flush();
+        } else {
+            System.out.flush();
+        }
     }
 
     /**
@@ -66,7 +348,8 @@ public final class io {
      * {@code setError} method has been invoked
      */
     public static boolean checkError() {
-        return System.out.checkError();
+        FastOutput out = output();
+        return out != null ? out.checkError() : System.out.checkError();
     }
 
     /*
@@ -88,7 +371,12 @@ public final class io {
      * @see #println(char)
      */
     public static void write(int b) {
-        System.out.write(b);
+        FastOutput out = output();
+        if (out != null) {
+            out.write(b);
+        } else {
+            System.out.write(b);
+        }
     }
 
     /**
@@ -106,7 +394,12 @@ public final class io {
      * @param len Number of bytes to write
      */
     public static void write(byte buf[], int off, int len) {
-        System.out.write(buf, off, len);
+        FastOutput out = output();
+        if (out != null) {
+            out.write(buf, off, len);
+        } else {
+            System.out.write(buf, off, len);
+        }
     }
 
     /* Methods that do not terminate lines */
@@ -119,7 +412,12 @@ public final class io {
      * @param b The {@code boolean} to be printed
      */
     public static void print(boolean b) {
-        System.out.print(b);
+        FastOutput out = output();
+        if (out != null) {
+            out.print(b);
+        } else {
+            System.out.print(b);
+        }
     }
 
     /**
@@ -130,7 +428,12 @@ public final class io {
      * @param c The {@code char} to be printed
      */
     public static void print(char c) {
-        System.out.print(c);
+        FastOutput out = output();
+        if (out != null) {
+            out.print(c);
+        } else {
+            System.out.print(c);
+        }
     }
 
     /**
@@ -143,7 +446,12 @@ public final class io {
      * @see java.lang.Integer#toString(int)
      */
     public static void print(int i) {
-        System.out.print(i);
+        FastOutput out = output();
+        if (out != null) {
+            out.print(i);
+        } else {
+            System.out.print(i);
+        }
     }
 
     /**
@@ -156,7 +464,12 @@ public final class io {
      * @see java.lang.Long#toString(long)
      */
     public static void print(long l) {
-        System.out.print(l);
+        FastOutput out = output();
+        if (out != null) {
+            out.print(l);
+        } else {
+            System.out.print(l);
+        }
     }
 
     /**
@@ -169,7 +482,12 @@ public final class io {
      * @see java.lang.Float#toString(float)
      */
     public static void print(float f) {
-        System.out.print(f);
+        FastOutput out = output();
+        if (out != null) {
+            out.print(f);
+        } else {
+            System.out.print(f);
+        }
     }
 
     /**
@@ -183,7 +501,37 @@ public final class io {
      * @see java.lang.Double#toString(double)
      */
     public static void print(double d) {
-        System.out.print(d);
+        FastOutput out = output();
+        if (out != null) {
+            out.print(d);
+        } else {
+            System.out.print(d);
+        }
+    }
+
+    /**
+     * Prints a double-precision floating-point number rounded to the
+     * specified number of fractional digits. The string produced is the one
+     * of {@code String.format(Locale.ROOT, "%.<decimals>f", d)}: the digits
+     * of {@link java.lang.String#valueOf(double)} rounded half up, always
+     * with a {@code '.'} as the decimal separator, and with no
+     * {@code Formatter} involved for ordinary values. It is written in
+     * exactly the manner of the {@link #print(String)} method.
+     *
+     * @param d The {@code double} to be printed
+     * @param decimals The number of digits after the decimal separator
+     * @throws IllegalArgumentException If {@code decimals} is negative
+     */
+    public static void print(double d, int decimals) {
+        if (decimals < 0) {
+            throw new IllegalArgumentException("decimals:" + decimals);
+        }
+        FastOutput out = output();
+        if (out != null) {
+            out.print(d, decimals);
+        } else {
+            System.out.print(DoubleFormatter.toString(d, decimals));
+        }
     }
 
     /**
@@ -196,7 +544,12 @@ public final class io {
      * @throws NullPointerException If {@code s} is {@code null}
      */
     public static void print(char s[]) {
-        System.out.print(s);
+        FastOutput out = output();
+        if (out != null) {
+            out.print(s);
+        } else {
+            System.out.print(s);
+        }
     }
 
     /**
@@ -209,7 +562,12 @@ public final class io {
      * @param s The {@code String} to be printed
      */
     public static void print(String s) {
-        System.out.print(s);
+        FastOutput out = output();
+        if (out != null) {
+            out.print(s);
+        } else {
+            System.out.print(s);
+        }
     }
 
     /**
@@ -222,7 +580,12 @@ public final class io {
      * @see java.lang.Object#toString()
      */
     public static void print(Object obj) {
-        System.out.print(obj);
+        FastOutput out = output();
+        if (out != null) {
+            out.print(String.valueOf(obj));
+        } else {
+            System.out.print(obj);
+        }
     }
 
 
@@ -234,7 +597,12 @@ public final class io {
      * ({@code '\n'}).
      */
     public static void println() {
-        System.out.println();
+        FastOutput out = output();
+        if (out != null) {
+            out.println();
+        } else {
+            System.out.println();
+        }
     }
 
     /**
@@ -244,7 +612,13 @@ public final class io {
      * @param x The {@code boolean} to be printed
      */
     public static void println(boolean x) {
-        System.out.println(x);
+        FastOutput out = output();
+        if (out != null) {
+            out.print(x);
+            out.println();
+        } else {
+            System.out.println(x);
+        }
     }
 
     /**
@@ -254,7 +628,13 @@ public final class io {
      * @param x The {@code char} to be printed.
      */
     public static void println(char x) {
-        System.out.println(x);
+        FastOutput out = output();
+        if (out != null) {
+            out.print(x);
+            out.println();
+        } else {
+            System.out.println(x);
+        }
     }
 
     /**
@@ -264,7 +644,13 @@ public final class io {
      * @param x The {@code int} to be printed.
      */
     public static void println(int x) {
-        System.out.println(x);
+        FastOutput out = output();
+        if (out != null) {
+            out.print(x);
+            out.println();
+        } else {
+            System.out.println(x);
+        }
     }
 
     /**
@@ -274,7 +660,13 @@ public final class io {
      * @param x a The {@code long} to be printed.
      */
     public static void println(long x) {
-        System.out.println(x);
+        FastOutput out = output();
+        if (out != null) {
+            out.print(x);
+            out.println();
+        } else {
+            System.out.println(x);
+        }
     }
 
     /**
@@ -284,7 +676,13 @@ public final class io {
      * @param x The {@code float} to be printed.
      */
     public static void println(float x) {
-        System.out.println(x);
+        FastOutput out = output();
+        if (out != null) {
+            out.print(x);
+            out.println();
+        } else {
+            System.out.println(x);
+        }
     }
 
     /**
@@ -294,7 +692,27 @@ public final class io {
      * @param x The {@code double} to be printed.
      */
     public static void println(double x) {
-        System.out.println(x);
+        FastOutput out = output();
+        if (out != null) {
+            out.print(x);
+            out.println();
+        } else {
+            System.out.println(x);
+        }
+    }
+
+    /**
+     * Prints a double rounded to the specified number of fractional digits
+     * and then terminate the line. This method behaves as though it invokes
+     * {@link #print(double, int)} and then {@link #println()}.
+     *
+     * @param x The {@code double} to be printed.
+     * @param decimals The number of digits after the decimal separator
+     * @throws IllegalArgumentException If {@code decimals} is negative
+     */
+    public static void println(double x, int decimals) {
+        print(x, decimals);
+        println();
     }
 
     /**
@@ -305,7 +723,13 @@ public final class io {
      * @param x an array of chars to print.
      */
     public static void println(char x[]) {
-        System.out.println(x);
+        FastOutput out = output();
+        if (out != null) {
+            out.print(x);
+            out.println();
+        } else {
+            System.out.println(x);
+        }
     }
 
     /**
@@ -315,7 +739,13 @@ public final class io {
      * @param x The {@code String} to be printed.
      */
     public static void println(String x) {
-        System.out.println(x);
+        FastOutput out = output();
+        if (out != null) {
+            out.print(x);
+            out.println();
+        } else {
+            System.out.println(x);
+        }
     }
 
     /**
@@ -326,7 +756,67 @@ public final class io {
      * @param x The {@code Object} to be printed.
      */
     public static void println(Object x) {
-        System.out.println(x);
+        FastOutput out = output();
+        if (out != null) {
+            out.print(String.valueOf(x));
+            out.println();
+        } else {
+            System.out.println(x);
+        }
+    }
+
+    /**
+     * Prints an array of integers, with the separator between each pair of
+     * consecutive values, and then terminates the line. This method behaves as
+     * though it invokes {@link #print(int)} for each value,
+     * {@link #print(char)} for each separator and then {@link #println()}.
+     *
+     * @param values The {@code int} values to be printed
+     * @param separator The {@code char} printed between values
+     * @throws NullPointerException If {@code values} is {@code null}
+     */
+    public static void println(int[] values, char separator) {
+        FastOutput out = output();
+        if (out != null) {
+            out.print(values, 0, values.length, separator);
+            out.println();
+        } else {
+            StringBuilder sb = new StringBuilder(values.length * 8);
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    sb.append(separator);
+                }
+                sb.append(values[i]);
+            }
+            System.out.println(sb);
+        }
+    }
+
+    /**
+     * Prints an array of long integers, with the separator between each pair
+     * of consecutive values, and then terminates the line. This method
+     * behaves as though it invokes {@link #print(long)} for each value,
+     * {@link #print(char)} for each separator and then {@link #println()}.
+     *
+     * @param values The {@code long} values to be printed
+     * @param separator The {@code char} printed between values
+     * @throws NullPointerException If {@code values} is {@code null}
+     */
+    public static void println(long[] values, char separator) {
+        FastOutput out = output();
+        if (out != null) {
+            out.print(values, 0, values.length, separator);
+            out.println();
+        } else {
+            StringBuilder sb = new StringBuilder(values.length * 12);
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    sb.append(separator);
+                }
+                sb.append(values[i]);
+            }
+            System.out.println(sb);
+        }
     }
 
     /**
@@ -368,7 +858,7 @@ public final class io {
      * @since 1.5
      */
     public static PrintStream printf(String format, Object... args) {
-        return System.out.printf(format, args);
+        return format(format, args);
     }
 
     /**
@@ -414,7 +904,7 @@ public final class io {
      * @since 1.5
      */
     public static PrintStream printf(Locale l, String format, Object... args) {
-        return System.out.printf(format, args);
+        return format(l, format, args);
     }
 
     /**
@@ -455,7 +945,7 @@ public final class io {
      * @since 1.5
      */
     public static PrintStream format(String format, Object... args) {
-        return System.out.format(format, args);
+        return format(Locale.getDefault(Locale.Category.FORMAT), format, args);
     }
 
     /**
@@ -492,7 +982,59 @@ public final class io {
      * @since 1.5
      */
     public static PrintStream format(Locale l, String format, Object... args) {
-        return System.out.format(format, args);
+        if (OUT == null) {
+            return System.out.format(l, format, args);
+        }
+        if (l == null) {
+            // no localization, which templates do not implement
+            return out().format(l, format, args);
+        }
+        TEMPLATES.get(format, l).print(args);
+        return out();
+    }
+
+    /**
+     * Compiles a format string into a template, which prints it with given
+     * arguments as {@link #printf(String, Object...)} does, without parsing
+     * the format string again. Its {@code put} methods take the arguments
+     * one by one, with no boxing of primitive values; in buffered output
+     * mode they write straight into the output buffer. Numbers are formatted
+     * for the default locale.
+     *
+     * <p>
+     * In buffered output mode, {@code printf} and {@code format} use the
+     * templates of the format strings and locales most recently used by the
+     * calling thread, compiled on their first use by that thread.
+     *
+     * @param format A format string as described in <a
+     *         href="../util/Formatter.html#syntax">Format string syntax</a>
+     * @return the compiled template
+     * @throws java.util.IllegalFormatException If the format string contains
+     * an illegal syntax
+     * @throws NullPointerException If the {@code format} is {@code null}
+     * @see FormatTemplate
+     */
+    public static FormatTemplate compileFormat(String format) {
+        return compileFormat(Locale.getDefault(Locale.Category.FORMAT), format);
+    }
+
+    /**
+     * Compiles a format string into a template that formats numbers for the
+     * specified locale.
+     *
+     * @param l The {@linkplain java.util.Locale locale} to apply during
+     * formatting
+     * @param format A format string as described in <a
+     *         href="../util/Formatter.html#syntax">Format string syntax</a>
+     * @return the compiled template
+     * @throws java.util.IllegalFormatException If the format string contains
+     * an illegal syntax
+     * @throws NullPointerException If the {@code l} or {@code format} is
+     * {@code null}
+     * @see #compileFormat(String)
+     */
+    public static FormatTemplate compileFormat(Locale l, String format) {
+        return new FormatTemplate(format, Objects.requireNonNull(l));
     }
 
     /**
@@ -522,7 +1064,13 @@ public final class io {
      * @since 1.5
      */
     public static PrintStream append(CharSequence csq) {
-        return System.out.append(csq);
+        FastOutput out = output();
+        if (out == null) {
+            return System.out.append(csq);
+        }
+        CharSequence cs = csq == null ? "null" : csq;
+        out.print(cs, 0, cs.length());
+        return out();
     }
 
     /**
@@ -556,7 +1104,14 @@ public final class io {
      * @since 1.5
      */
     public static PrintStream append(CharSequence csq, int start, int end) {
-        return System.out.append(csq);
+        FastOutput out = output();
+        if (out == null) {
+            return System.out.append(csq, start, end);
+        }
+        CharSequence cs = csq == null ? "null" : csq;
+        Objects.checkFromToIndex(start, end, cs.length());
+        out.print(cs, start, end);
+        return out();
     }
 
     /**
@@ -577,7 +1132,12 @@ public final class io {
      * @since 1.5
      */
     public static PrintStream append(char c) {
-        return System.out.append(c);
+        FastOutput out = output();
+        if (out == null) {
+            return System.out.append(c);
+        }
+        out.print(c);
+        return out();
     }
 
     /**
@@ -601,8 +1161,12 @@ public final class io {
      * @see java.io.OutputStream#close()
      */
     public static void close() {
-        System.out.close();
-        SCN.close();
+        out().close();
+        if (IN != null) {
+            IN.close();
+        } else {
+            scanner().close();
+        }
     }
 
     /**
@@ -613,7 +1177,434 @@ public final class io {
      * @return the last exception thrown by this scanner's readable
      */
     public static IOException ioException() {
-        return SCN.ioException();
+        return IN != null ? IN.ioException() : scanner().ioException();
+    }
+
+    /**
+     * Makes the input methods read standard input through a byte-level
+     * tokenizer instead of a Scanner.
+     *
+     * <p>
+     * In this mode, {@link #next}, {@link #nextLine}, the {@code nextX} and
+     * {@code hasNextX} methods for primitive types, {@code BigInteger} and
+     * {@code BigDecimal}, {@link #radix}, {@link #setRadix},
+     * {@link #delimiter} and {@link #setDelimiter(String)} are served
+     * straight from the bytes read, with no regular expression matching and
+     * no object created per primitive token. Tokens are delimited by ASCII
+     * whitespace, or by the ASCII characters set with
+     * {@code setDelimiter}, and numbers must use ASCII digits without locale
+     * specific group separators.
+     *
+     * <p>
+     * When standard input is redirected from a regular file, the file is
+     * mapped into memory and parsed in place; pipes and terminals are read in
+     * large blocks into a reusable buffer.
+     *
+     * <p>
+     * Any other input method, such as {@link #findInLine(String)} or
+     * {@link #useDelimiter(String)}, or {@code setDelimiter} with a pattern
+     * the tokenizer cannot match, hands the input not consumed yet over to
+     * a Scanner, which then serves every input method as if this method had
+     * never been called.
+     *
+     * <p>
+     * This method has no effect if fast input is already in use.
+     *
+     * @throws IllegalStateException if the Scanner has already been used
+     */
+    public static void useFastInput() {
+        if (IN != null) {
+            return;
+        }
+        if (SCN != null) {
+            throw new IllegalStateException("Scanner already in use");
+        }
+        IN = stdin();
+    }
+
+    /**
+     * Makes the input methods read standard input through the byte-level
+     * tokenizer of {@link #useFastInput}, fed by a background thread that
+     * reads ahead into 4 buffers of 64 KiB.
+     *
+     * @throws IllegalStateException if the Scanner or fast input is already
+     * in use
+     * @see #usePrefetchInput(int, int)
+     */
+    public static void usePrefetchInput() {
+        usePrefetchInput(4, 1 << 16);
+    }
+
+    /**
+     * Makes the input methods read standard input through the byte-level
+     * tokenizer of {@link #useFastInput}, fed by a background thread that
+     * reads ahead into the specified number of buffers.
+     *
+     * <p>
+     * While the tokenizer parses the bytes of one buffer, in place, the
+     * reader thread fills the next ones, so that waiting for input overlaps
+     * with parsing and no byte is copied but those of a token or line split
+     * between two buffers.
+     * This pays off when standard input is a slow pipe, such as the output
+     * of a decompression or network tool. Standard input is read as a stream
+     * even when it is a regular file.
+     *
+     * <p>
+     * Methods the tokenizer cannot serve hand the input over to a Scanner as
+     * described in {@link #useFastInput}; the reader thread keeps feeding the
+     * Scanner then.
+     *
+     * @param buffers the number of buffers, at least 2
+     * @param bufferSize the size of each buffer in bytes
+     * @throws IllegalArgumentException if buffers is less than 2 or
+     * bufferSize is not positive
+     * @throws IllegalStateException if the Scanner or fast input is already
+     * in use
+     */
+    public static void usePrefetchInput(int buffers, int bufferSize) {
+        if (SCN != null) {
+            throw new IllegalStateException("Scanner already in use");
+        }
+        if (IN != null) {
+            throw new IllegalStateException("Fast input already in use");
+        }
+        IN = new FastInput(new PrefetchInputStream(System.in, buffers, bufferSize), Charset.defaultCharset());
+    }
+
+    /**
+     * Opens the specified file for reading with a tokenizer of its own, which
+     * maps it into memory and parses it in place.
+     *
+     * <p>
+     * The tokenizer reads the file as the input methods of this class read
+     * standard input after {@link #useFastInput}, and should be closed when
+     * no longer needed. Tokenizers are independent of each other and of
+     * standard input, so several files can be read at once, each by its own
+     * thread.
+     *
+     * @param path the file to read
+     * @return a tokenizer over the file
+     * @throws IOException if the file cannot be opened
+     * @see FastInput
+     */
+    public static FastInput open(Path path) throws IOException {
+        return of(FileChannel.open(path));
+    }
+
+    /**
+     * Reads the specified files in parallel, each with a tokenizer of its
+     * own, at most twice as many at a time as there are processors.
+     *
+     * @see #readAll(Collection, int, FileHandler)
+     */
+    public static <R> List<R> readAll(Collection<Path> paths, FileHandler<? extends R> handler) throws IOException {
+        return readAll(paths, 2 * Runtime.getRuntime().availableProcessors(), handler);
+    }
+
+    /**
+     * Reads the specified files in parallel, each with a tokenizer of its
+     * own, and returns the results of the handler for each file, in the
+     * order of the files.
+     *
+     * <p>
+     * Each file is opened as with {@link #open(Path)}, passed to the handler
+     * and closed when the handler returns. The handlers run on virtual
+     * threads when the runtime supports them, from Java 21 on, and on a
+     * pool of platform threads otherwise; in both cases at most
+     * {@code parallelism} files are open and read at a time, and this method
+     * waits to start each file until one of the previous ones is done. The
+     * handler is called concurrently and must be thread-safe, though each
+     * tokenizer is used by a single thread.
+     *
+     * <p>
+     * If a handler throws an exception, no more files are opened, and once
+     * the files being read are done, the first exception is thrown, with the
+     * later ones as suppressed exceptions.
+     *
+     * <pre>{@code
+     * List<Long> sums = io.readAll(shards, 16, (path, in) -> in.longs().sum());
+     * }</pre>
+     *
+     * @param <R> the type of the results
+     * @param paths the files to read
+     * @param parallelism the maximum number of files read at a time
+     * @param handler the function computing the result for a file
+     * @return the results, in the order of the files
+     * @throws IOException if a file cannot be opened, or a handler throws one
+     * @throws IllegalArgumentException if parallelism is less than 1
+     */
+    public static <R> List<R> readAll(Collection<Path> paths, int parallelism, FileHandler<? extends R> handler)
+            throws IOException {
+        Objects.requireNonNull(handler);
+        return ParallelReader.readAll(paths, parallelism, handler);
+    }
+
+    /**
+     * Returns a tokenizer reading the specified stream in large blocks.
+     * Closing the tokenizer closes the stream.
+     *
+     * @param in the stream to read
+     * @return a tokenizer over the stream
+     * @see #open(Path)
+     */
+    public static FastInput of(InputStream in) {
+        return new FastInput(Objects.requireNonNull(in), Charset.defaultCharset());
+    }
+
+    /**
+     * Returns a tokenizer reading the specified channel from its current
+     * position. A {@code FileChannel} over a regular file is mapped into
+     * memory, and any other channel is read in large blocks. Closing the
+     * tokenizer closes the channel.
+     *
+     * @param ch the channel to read
+     * @return a tokenizer over the channel
+     * @see #open(Path)
+     */
+    public static FastInput of(ReadableByteChannel ch) {
+        if (ch instanceof FileChannel) {
+            FileChannel file = (FileChannel) ch;
+            try {
+                if (file.size() > file.position()) {
+                    return new FastInput(file, Charset.defaultCharset());
+                }
+            } catch (IOException e) {
+                // not seekable: read as a stream
+            }
+        }
+        return new FastInput(Channels.newInputStream(ch), Charset.defaultCharset());
+    }
+
+    /**
+     * Returns a reader of the following lines of standard input as records
+     * of comma-separated fields.
+     *
+     * @see #csv(char)
+     */
+    public static CsvReader csv() {
+        return csv(',');
+    }
+
+    /**
+     * Returns a reader of the following lines of standard input as records
+     * of fields separated by the specified character, with fast input in use
+     * as after {@link #useFastInput}.
+     *
+     * <pre>{@code
+     * CsvReader csv = io.csv('\t').header().select("price");
+     * int price = csv.column("price");
+     * while (csv.next()) {
+     *     total += csv.getDouble(price);
+     * }
+     * }</pre>
+     *
+     * @param separator the character between fields, such as {@code ','} or
+     * {@code '\t'}
+     * @return a reader of records
+     * @throws IllegalArgumentException if the separator is not an ASCII
+     * character or is a quote or line terminator
+     * @throws IllegalStateException if the Scanner has already been used
+     * @see CsvReader
+     */
+    public static CsvReader csv(char separator) {
+        useFastInput();
+        return IN.csv(separator);
+    }
+
+    /**
+     * Returns a reader of the following bytes of standard input as binary
+     * values in the specified byte order, with fast input in use as after
+     * {@link #useFastInput}. Text and binary values can be read in turn.
+     *
+     * @param order the byte order of the values
+     * @return a reader of binary values
+     * @throws IllegalStateException if the Scanner has already been used
+     * @see BinaryReader
+     */
+    public static BinaryReader binary(ByteOrder order) {
+        useFastInput();
+        return IN.binary(order);
+    }
+
+    private static BinaryReader le() {
+        if (LE == null || IN == null) {
+            LE = binary(ByteOrder.LITTLE_ENDIAN);
+        }
+        return LE;
+    }
+
+    /**
+     * Reads a little-endian {@code short} value of two bytes from standard
+     * input.
+     *
+     * @throws NoSuchElementException if the input has fewer bytes
+     * @throws IllegalStateException if the Scanner has already been used
+     * @see #binary(ByteOrder)
+     */
+    public static short readShortLE() {
+        return le().readShort();
+    }
+
+    /**
+     * Reads a little-endian {@code int} value of four bytes from standard
+     * input.
+     *
+     * @throws NoSuchElementException if the input has fewer bytes
+     * @throws IllegalStateException if the Scanner has already been used
+     * @see #binary(ByteOrder)
+     */
+    public static int readIntLE() {
+        return le().readInt();
+    }
+
+    /**
+     * Reads a little-endian {@code long} value of eight bytes from standard
+     * input.
+     *
+     * @throws NoSuchElementException if the input has fewer bytes
+     * @throws IllegalStateException if the Scanner has already been used
+     * @see #binary(ByteOrder)
+     */
+    public static long readLongLE() {
+        return le().readLong();
+    }
+
+    /**
+     * Reads a little-endian {@code float} value of four bytes from standard
+     * input.
+     *
+     * @throws NoSuchElementException if the input has fewer bytes
+     * @throws IllegalStateException if the Scanner has already been used
+     * @see #binary(ByteOrder)
+     */
+    public static float readFloatLE() {
+        return le().readFloat();
+    }
+
+    /**
+     * Reads a little-endian {@code double} value of eight bytes from
+     * standard input.
+     *
+     * @throws NoSuchElementException if the input has fewer bytes
+     * @throws IllegalStateException if the Scanner has already been used
+     * @see #binary(ByteOrder)
+     */
+    public static double readDoubleLE() {
+        return le().readDouble();
+    }
+
+    /**
+     * Reads {@code n} little-endian {@code int} values of four bytes from
+     * standard input, copied from the input buffer as many at a time as it
+     * holds.
+     *
+     * @param n the number of values to read
+     * @return a new array with the values read
+     * @throws NegativeArraySizeException if {@code n} is negative
+     * @throws NoSuchElementException if the input has fewer bytes
+     * @throws IllegalStateException if the Scanner has already been used
+     * @see BinaryReader#readInts(int[], int, int)
+     */
+    public static int[] readIntArrayLE(int n) {
+        return le().readInts(new int[n], 0, n);
+    }
+
+    /**
+     * Reads {@code n} little-endian {@code long} values of eight bytes from
+     * standard input.
+     *
+     * @see #readIntArrayLE(int)
+     */
+    public static long[] readLongArrayLE(int n) {
+        return le().readLongs(new long[n], 0, n);
+    }
+
+    /**
+     * Reads {@code n} little-endian {@code float} values of four bytes from
+     * standard input.
+     *
+     * @see #readIntArrayLE(int)
+     */
+    public static float[] readFloatArrayLE(int n) {
+        return le().readFloats(new float[n], 0, n);
+    }
+
+    /**
+     * Reads {@code n} little-endian {@code double} values of eight bytes from
+     * standard input.
+     *
+     * @see #readIntArrayLE(int)
+     */
+    public static double[] readDoubleArrayLE(int n) {
+        return le().readDoubles(new double[n], 0, n);
+    }
+
+    /**
+     * Reads a variable-length {@code int} from standard input, as written by
+     * Protocol Buffers.
+     *
+     * @throws InputMismatchException if the value has more than ten bytes
+     * @throws NoSuchElementException if the input ends within the value
+     * @throws IllegalStateException if the Scanner has already been used
+     * @see BinaryReader#readVarint()
+     */
+    public static int readVarint() {
+        return le().readVarint();
+    }
+
+    /**
+     * Reads a variable-length {@code long} from standard input, as written by
+     * Protocol Buffers.
+     *
+     * @throws InputMismatchException if the value has more than ten bytes
+     * @throws NoSuchElementException if the input ends within the value
+     * @throws IllegalStateException if the Scanner has already been used
+     * @see BinaryReader#readVarlong()
+     */
+    public static long readVarlong() {
+        return le().readVarlong();
+    }
+
+    /**
+     * Reads a variable-length ZigZag-encoded {@code int} from standard input,
+     * as written by Protocol Buffers for an {@code sint32}.
+     *
+     * @throws InputMismatchException if the value has more than ten bytes
+     * @throws NoSuchElementException if the input ends within the value
+     * @throws IllegalStateException if the Scanner has already been used
+     * @see BinaryReader#readSignedVarint()
+     */
+    public static int readSignedVarint() {
+        return le().readSignedVarint();
+    }
+
+    /**
+     * Reads a variable-length ZigZag-encoded {@code long} from standard
+     * input, as written by Protocol Buffers for an {@code sint64}.
+     *
+     * @throws InputMismatchException if the value has more than ten bytes
+     * @throws NoSuchElementException if the input ends within the value
+     * @throws IllegalStateException if the Scanner has already been used
+     * @see BinaryReader#readSignedVarlong()
+     */
+    public static long readSignedVarlong() {
+        return le().readSignedVarlong();
+    }
+
+    /**
+     * Returns a tokenizer over standard input, which maps it into memory if
+     * it is a regular file.
+     */
+    private static FastInput stdin() {
+        FileChannel ch = new FileInputStream(FileDescriptor.in).getChannel();
+        try {
+            if (ch.size() > ch.position()) {
+                return new FastInput(ch, Charset.defaultCharset());
+            }
+        } catch (IOException e) {
+            // not seekable: a pipe or a terminal
+        }
+        return new FastInput(System.in, Charset.defaultCharset());
     }
 
     /**
@@ -623,17 +1614,23 @@ public final class io {
      * @return this scanner's delimiting pattern.
      */
     public static Pattern delimiter() {
-        return SCN.delimiter();
+        return IN != null ? IN.delimiter() : scanner().delimiter();
     }
 
     /**
      * Sets this scanner's delimiting pattern to the specified pattern.
      *
+     * <p>
+     * As this method returns the Scanner, it hands the input over to the
+     * Scanner when fast input is in use, as described in
+     * {@link #useFastInput}; {@link #setDelimiter(Pattern)} sets the
+     * delimiter without doing so when it can.
+     *
      * @param pattern A delimiting pattern
      * @return this scanner
      */
     public static Scanner useDelimiter(Pattern pattern) {
-        return SCN.useDelimiter(pattern);
+        return scanner().useDelimiter(pattern);
     }
 
     /**
@@ -651,9 +1648,42 @@ public final class io {
      *
      * @param pattern A string specifying a delimiting pattern
      * @return this scanner
+     * @see #useDelimiter(Pattern)
      */
     public static Scanner useDelimiter(String pattern) {
-        return SCN.useDelimiter(pattern);
+        return useDelimiter(PATTERNS.get(pattern));
+    }
+
+    /**
+     * Sets the delimiting pattern to the specified pattern, as
+     * {@link #useDelimiter(Pattern)} does, but keeps fast input in use if the
+     * fast tokenizer can match the pattern.
+     *
+     * <p>
+     * A pattern matching one ASCII character out of a set, or a run of such
+     * characters, such as {@code ","}, {@code "\t"}, {@code "\|"},
+     * {@code "\n"}, {@code "[,;]"} or {@code "[ \t]+"}, is matched byte by
+     * byte by the fast tokenizer, which splits tokens exactly as the Scanner
+     * would. Any other pattern hands the input over to the Scanner, as
+     * described in {@link #useFastInput}.
+     *
+     * @param pattern A delimiting pattern
+     */
+    public static void setDelimiter(Pattern pattern) {
+        if (IN == null || !IN.useDelimiter(pattern)) {
+            scanner().useDelimiter(pattern);
+        }
+    }
+
+    /**
+     * Sets the delimiting pattern to a pattern constructed from the specified
+     * {@code String}.
+     *
+     * @param pattern A string specifying a delimiting pattern
+     * @see #setDelimiter(Pattern)
+     */
+    public static void setDelimiter(String pattern) {
+        setDelimiter(PATTERNS.get(pattern));
     }
 
     /**
@@ -667,7 +1697,7 @@ public final class io {
      * @return this scanner's locale
      */
     public static Locale locale() {
-        return SCN.locale();
+        return scanner().locale();
     }
 
     /**
@@ -686,7 +1716,7 @@ public final class io {
      * @return this scanner
      */
     public static Scanner useLocale(Locale locale) {
-        return SCN.useLocale(locale);
+        return scanner().useLocale(locale);
     }
 
     /**
@@ -700,7 +1730,7 @@ public final class io {
      * @return the default radix of this scanner
      */
     public static int radix() {
-        return SCN.radix();
+        return IN != null ? IN.radix() : scanner().radix();
     }
 
     /**
@@ -720,12 +1750,33 @@ public final class io {
      * Invoking the {@link #reset} method will set the scanner's radix to
      * {@code 10}.
      *
+     * <p>
+     * As this method returns the Scanner, it hands the input over to the
+     * Scanner when fast input is in use, as described in
+     * {@link #useFastInput}; {@link #setRadix} sets the radix without doing
+     * so.
+     *
      * @param radix The radix to use when scanning numbers
      * @return this scanner
      * @throws IllegalArgumentException if radix is out of range
      */
     public static Scanner useRadix(int radix) {
-        return SCN.useRadix(radix);
+        return scanner().useRadix(radix);
+    }
+
+    /**
+     * Sets the default radix to the specified radix, as {@link #useRadix}
+     * does, but keeps fast input in use if it is.
+     *
+     * @param radix The radix to use when scanning numbers
+     * @throws IllegalArgumentException if radix is out of range
+     */
+    public static void setRadix(int radix) {
+        if (IN != null) {
+            IN.useRadix(radix);
+        } else {
+            scanner().useRadix(radix);
+        }
     }
 
     /**
@@ -747,7 +1798,7 @@ public final class io {
      * @throws IllegalStateException If no match result is available
      */
     public static MatchResult match() {
-        return SCN.match();
+        return scanner().match();
     }
 
     /**
@@ -759,7 +1810,7 @@ public final class io {
      * @return The string representation of this scanner
      */
     public static String tostring() {
-        return SCN.toString();
+        return scanner().toString();
     }
 
     /**
@@ -772,7 +1823,7 @@ public final class io {
      * @see java.util.Iterator
      */
     public static boolean hasNext() {
-        return SCN.hasNext();
+        return IN != null ? IN.hasNext() : scanner().hasNext();
     }
 
     /**
@@ -787,7 +1838,7 @@ public final class io {
      * @see java.util.Iterator
      */
     public static String next() {
-        return SCN.next();
+        return IN != null ? IN.next() : scanner().next();
     }
 
     /**
@@ -805,7 +1856,7 @@ public final class io {
      * @throws IllegalStateException if this scanner is closed
      */
     public static boolean hasNext(String pattern) {
-        return SCN.hasNext(pattern);
+        return scanner().hasNext(PATTERNS.get(pattern));
     }
 
     /**
@@ -824,7 +1875,7 @@ public final class io {
      * @throws IllegalStateException if this scanner is closed
      */
     public static String next(String pattern) {
-        return SCN.next(pattern);
+        return scanner().next(PATTERNS.get(pattern));
     }
 
     /**
@@ -839,7 +1890,7 @@ public final class io {
      * @throws IllegalStateException if this scanner is closed
      */
     public static boolean hasNext(Pattern pattern) {
-        return SCN.hasNext(pattern);
+        return scanner().hasNext(pattern);
     }
 
     /**
@@ -854,7 +1905,7 @@ public final class io {
      * @throws IllegalStateException if this scanner is closed
      */
     public static String next(Pattern pattern) {
-        return SCN.next(pattern);
+        return scanner().next(pattern);
     }
 
     /**
@@ -866,7 +1917,7 @@ public final class io {
      * @throws IllegalStateException if this scanner is closed
      */
     public static boolean hasNextLine() {
-        return SCN.hasNextLine();
+        return IN != null ? IN.hasNextLine() : scanner().hasNextLine();
     }
 
     /**
@@ -887,7 +1938,100 @@ public final class io {
      * @throws IllegalStateException if this scanner is closed
      */
     public static String nextLine() {
-        return SCN.nextLine();
+        return IN != null ? IN.nextLine() : scanner().nextLine();
+    }
+
+    /**
+     * Advances past the current line and returns a view of it, excluding any
+     * line separator at the end, without creating a {@code String}.
+     *
+     * <p>
+     * The view is reused, and only valid until the next call to a method
+     * that reads input. When fast input is in use it shows the bytes of the
+     * line in the input buffer, so reading a line allocates nothing;
+     * otherwise the line is read with {@link #nextLine()} and the view is
+     * over its bytes.
+     *
+     * @return a view of the line that was skipped
+     * @throws NoSuchElementException if no line was found
+     * @throws IllegalStateException if this scanner is closed
+     * @see ByteView
+     */
+    public static ByteView nextLineView() {
+        return IN != null ? IN.nextLineView() : ByteView.of(scanner().nextLine(), Charset.defaultCharset());
+    }
+
+    /**
+     * Advances past the current line and passes its characters, excluding
+     * any line separator at the end, to the specified action in chunks of at
+     * most 8192 characters, so that a line of any length can be read in
+     * bounded memory.
+     *
+     * <p>
+     * The action is called with a {@code CharBuffer} holding the next chunk
+     * between its position and its limit, once for each chunk, in order.
+     * The buffer is reused, and only valid until the action returns. An
+     * empty line calls the action no time.
+     *
+     * <p>
+     * When fast input is in use, the line is decoded as it is read, and the
+     * memory used does not depend on its length. Otherwise the line is read
+     * whole with {@link #nextLine()} and passed in chunks.
+     *
+     * @param action the action called for each chunk of the line
+     * @return the number of characters of the line
+     * @throws NoSuchElementException if no line was found
+     * @throws IllegalStateException if this scanner is closed
+     */
+    public static long nextLineChunks(Consumer<? super CharBuffer> action) {
+        Objects.requireNonNull(action);
+        return IN != null ? IN.nextLineChunks(action) : chunks(scanner().nextLine(), action);
+    }
+
+    /**
+     * Advances past the next complete token and passes its characters to the
+     * specified action in chunks of at most 8192 characters, as
+     * {@link #nextLineChunks(Consumer)} does for lines.
+     *
+     * @param action the action called for each chunk of the token
+     * @return the number of characters of the token
+     * @throws NoSuchElementException if no more tokens are available
+     * @throws IllegalStateException if this scanner is closed
+     */
+    public static long nextChunks(Consumer<? super CharBuffer> action) {
+        Objects.requireNonNull(action);
+        return IN != null ? IN.nextChunks(action) : chunks(scanner().next(), action);
+    }
+
+    /**
+     * Passes the characters of the specified string to the action in chunks
+     * of at most 8192 characters.
+     */
+    private static long chunks(String s, Consumer<? super CharBuffer> action) {
+        for (int i = 0; i < s.length(); i += 1 << 13) {
+            action.accept(CharBuffer.wrap(s, i, Math.min(s.length(), i + (1 << 13))));
+        }
+        return s.length();
+    }
+
+    /**
+     * Returns a view of the next complete token, without creating a
+     * {@code String}.
+     *
+     * <p>
+     * The view is reused, and only valid until the next call to a method
+     * that reads input. When fast input is in use it shows the bytes of the
+     * token in the input buffer, so reading a token allocates nothing;
+     * otherwise the token is read with {@link #next()} and the view is over
+     * its bytes.
+     *
+     * @return a view of the next token
+     * @throws NoSuchElementException if no more tokens are available
+     * @throws IllegalStateException if this scanner is closed
+     * @see ByteView
+     */
+    public static ByteView nextView() {
+        return IN != null ? IN.nextView() : ByteView.of(scanner().next(), Charset.defaultCharset());
     }
 
     // Public methods that ignore delimiters
@@ -905,7 +2049,7 @@ public final class io {
      * @throws IllegalStateException if this scanner is closed
      */
     public static String findInLine(String pattern) {
-        return SCN.findInLine(pattern);
+        return scanner().findInLine(PATTERNS.get(pattern));
     }
 
     /**
@@ -927,7 +2071,7 @@ public final class io {
      * @throws IllegalStateException if this scanner is closed
      */
     public static String findInLine(Pattern pattern) {
-        return SCN.findInLine(pattern);
+        return scanner().findInLine(pattern);
     }
 
     /**
@@ -946,7 +2090,7 @@ public final class io {
      * @throws IllegalArgumentException if horizon is negative
      */
     public static String findWithinHorizon(String pattern, int horizon) {
-        return SCN.findWithinHorizon(pattern, horizon);
+        return scanner().findWithinHorizon(PATTERNS.get(pattern), horizon);
     }
 
     /**
@@ -984,7 +2128,7 @@ public final class io {
      * @throws IllegalArgumentException if horizon is negative
      */
     public static String findWithinHorizon(Pattern pattern, int horizon) {
-        return SCN.findWithinHorizon(pattern, horizon);
+        return scanner().findWithinHorizon(pattern, horizon);
     }
 
     /**
@@ -1012,7 +2156,7 @@ public final class io {
      * @throws IllegalStateException if this scanner is closed
      */
     public static Scanner skip(Pattern pattern) {
-        return SCN.skip(pattern);
+        return scanner().skip(pattern);
     }
 
     /**
@@ -1028,7 +2172,7 @@ public final class io {
      * @throws IllegalStateException if this scanner is closed
      */
     public static Scanner skip(String pattern) {
-        return SCN.skip(pattern);
+        return scanner().skip(PATTERNS.get(pattern));
     }
 
     // Convenience methods for scanning primitives
@@ -1043,7 +2187,7 @@ public final class io {
      * @throws IllegalStateException if this scanner is closed
      */
     public static boolean hasNextBoolean() {
-        return SCN.hasNextBoolean();
+        return IN != null ? IN.hasNextBoolean() : scanner().hasNextBoolean();
     }
 
     /**
@@ -1058,7 +2202,7 @@ public final class io {
      * @throws IllegalStateException if this scanner is closed
      */
     public static boolean nextBoolean() {
-        return SCN.nextBoolean();
+        return IN != null ? IN.nextBoolean() : scanner().nextBoolean();
     }
 
     /**
@@ -1071,7 +2215,7 @@ public final class io {
      * @throws IllegalStateException if this scanner is closed
      */
     public static boolean hasNextByte() {
-        return SCN.hasNextByte();
+        return IN != null ? IN.hasNextByte() : scanner().hasNextByte();
     }
 
     /**
@@ -1091,7 +2235,7 @@ public final class io {
      * @throws IllegalArgumentException if the radix is out of range
      */
     public static boolean hasNextByte(int radix) {
-        return SCN.hasNextByte(radix);
+        return IN != null ? IN.hasNextByte(radix) : scanner().hasNextByte(radix);
     }
 
     /**
@@ -1110,7 +2254,7 @@ public final class io {
      * @throws IllegalStateException if this scanner is closed
      */
     public static byte nextByte() {
-        return SCN.nextByte();
+        return IN != null ? IN.nextByte() : scanner().nextByte();
     }
 
     /**
@@ -1146,7 +2290,7 @@ public final class io {
      * @throws IllegalArgumentException if the radix is out of range
      */
     public static byte nextByte(int radix) {
-        return SCN.nextByte(radix);
+        return IN != null ? IN.nextByte(radix) : scanner().nextByte(radix);
     }
 
     /**
@@ -1159,7 +2303,7 @@ public final class io {
      * @throws IllegalStateException if this scanner is closed
      */
     public static boolean hasNextShort() {
-        return SCN.hasNextShort();
+        return IN != null ? IN.hasNextShort() : scanner().hasNextShort();
     }
 
     /**
@@ -1179,7 +2323,7 @@ public final class io {
      * @throws IllegalArgumentException if the radix is out of range
      */
     public static boolean hasNextShort(int radix) {
-        return SCN.hasNextShort(radix);
+        return IN != null ? IN.hasNextShort(radix) : scanner().hasNextShort(radix);
     }
 
     /**
@@ -1199,7 +2343,7 @@ public final class io {
      * @throws IllegalStateException if this scanner is closed
      */
     public static short nextShort() {
-        return SCN.nextShort();
+        return IN != null ? IN.nextShort() : scanner().nextShort();
     }
 
     /**
@@ -1236,7 +2380,7 @@ public final class io {
      * @throws IllegalArgumentException if the radix is out of range
      */
     static public short nextShort(int radix) {
-        return SCN.nextShort(radix);
+        return IN != null ? IN.nextShort(radix) : scanner().nextShort(radix);
     }
 
     /**
@@ -1249,7 +2393,7 @@ public final class io {
      * @throws IllegalStateException if this scanner is closed
      */
     public static boolean hasNextInt() {
-        return SCN.hasNextInt();
+        return IN != null ? IN.hasNextInt() : scanner().hasNextInt();
     }
 
     /**
@@ -1269,7 +2413,7 @@ public final class io {
      * @throws IllegalArgumentException if the radix is out of range
      */
     public static boolean hasNextInt(int radix) {
-        return SCN.hasNextInt(radix);
+        return IN != null ? IN.hasNextInt(radix) : scanner().hasNextInt(radix);
     }
 
     /**
@@ -1288,7 +2432,7 @@ public final class io {
      * @throws IllegalStateException if this scanner is closed
      */
     public static int nextInt() {
-        return SCN.nextInt();
+        return IN != null ? IN.nextInt() : scanner().nextInt();
     }
 
     /**
@@ -1324,7 +2468,7 @@ public final class io {
      * @throws IllegalArgumentException if the radix is out of range
      */
     public static int nextInt(int radix) {
-        return SCN.nextInt(radix);
+        return IN != null ? IN.nextInt(radix) : scanner().nextInt(radix);
     }
 
     /**
@@ -1337,7 +2481,7 @@ public final class io {
      * @throws IllegalStateException if this scanner is closed
      */
     public static boolean hasNextLong() {
-        return SCN.hasNextLong();
+        return IN != null ? IN.hasNextLong() : scanner().hasNextLong();
     }
 
     /**
@@ -1357,7 +2501,7 @@ public final class io {
      * @throws IllegalArgumentException if the radix is out of range
      */
     public static boolean hasNextLong(int radix) {
-        return SCN.hasNextLong(radix);
+        return IN != null ? IN.hasNextLong(radix) : scanner().hasNextLong(radix);
     }
 
     /**
@@ -1376,7 +2520,7 @@ public final class io {
      * @throws IllegalStateException if this scanner is closed
      */
     public static long nextLong() {
-        return SCN.nextLong();
+        return IN != null ? IN.nextLong() : scanner().nextLong();
     }
 
     /**
@@ -1412,7 +2556,7 @@ public final class io {
      * @throws IllegalArgumentException if the radix is out of range
      */
     public static long nextLong(int radix) {
-        return SCN.nextLong(radix);
+        return IN != null ? IN.nextLong(radix) : scanner().nextLong(radix);
     }
 
     /**
@@ -1425,7 +2569,7 @@ public final class io {
      * @throws IllegalStateException if this scanner is closed
      */
     public static boolean hasNextFloat() {
-        return SCN.hasNextFloat();
+        return IN != null ? IN.hasNextFloat() : scanner().hasNextFloat();
     }
 
     /**
@@ -1457,7 +2601,7 @@ public final class io {
      * @throws IllegalStateException if this scanner is closed
      */
     public static float nextFloat() {
-        return SCN.nextFloat();
+        return IN != null ? IN.nextFloat() : scanner().nextFloat();
     }
 
     /**
@@ -1470,7 +2614,7 @@ public final class io {
      * @throws IllegalStateException if this scanner is closed
      */
     public static boolean hasNextDouble() {
-        return SCN.hasNextDouble();
+        return IN != null ? IN.hasNextDouble() : scanner().hasNextDouble();
     }
 
     /**
@@ -1501,7 +2645,7 @@ public final class io {
      * @throws IllegalStateException if this scanner is closed
      */
     public static double nextDouble() {
-        return SCN.nextDouble();
+        return IN != null ? IN.nextDouble() : scanner().nextDouble();
     }
 
     // Convenience methods for scanning multi precision numbers
@@ -1516,7 +2660,7 @@ public final class io {
      * @throws IllegalStateException if this scanner is closed
      */
     public static boolean hasNextBigInteger() {
-        return SCN.hasNextBigInteger();
+        return IN != null ? IN.hasNextBigInteger() : scanner().hasNextBigInteger();
     }
 
     /**
@@ -1537,7 +2681,7 @@ public final class io {
      * @throws IllegalArgumentException if the radix is out of range
      */
     public static boolean hasNextBigInteger(int radix) {
-        return SCN.hasNextBigInteger(radix);
+        return IN != null ? IN.hasNextBigInteger(radix) : scanner().hasNextBigInteger(radix);
     }
 
     /**
@@ -1557,7 +2701,7 @@ public final class io {
      * @throws IllegalStateException if this scanner is closed
      */
     public static BigInteger nextBigInteger() {
-        return SCN.nextBigInteger();
+        return IN != null ? IN.nextBigInteger() : scanner().nextBigInteger();
     }
 
     /**
@@ -1589,7 +2733,7 @@ public final class io {
      * @throws IllegalArgumentException if the radix is out of range
      */
     public static BigInteger nextBigInteger(int radix) {
-        return SCN.nextBigInteger(radix);
+        return IN != null ? IN.nextBigInteger(radix) : scanner().nextBigInteger(radix);
     }
 
     /**
@@ -1602,7 +2746,7 @@ public final class io {
      * @throws IllegalStateException if this scanner is closed
      */
     public static boolean hasNextBigDecimal() {
-        return SCN.hasNextBigDecimal();
+        return IN != null ? IN.hasNextBigDecimal() : scanner().hasNextBigDecimal();
     }
 
     /**
@@ -1627,7 +2771,211 @@ public final class io {
      * @throws IllegalStateException if this scanner is closed
      */
     public static BigDecimal nextBigDecimal() {
-        return SCN.nextBigDecimal();
+        return IN != null ? IN.nextBigDecimal() : scanner().nextBigDecimal();
+    }
+
+    /**
+     * Scans the next {@code n} tokens of the input as {@code int} values.
+     *
+     * <p>
+     * An invocation of this method of the form {@code nextIntArray(n)}
+     * behaves in exactly the same way as the invocation
+     * {@code nextIntArray(new int[n])}.
+     *
+     * @param n the number of values to scan
+     * @return a new array with the values scanned from the input
+     * @throws NegativeArraySizeException if {@code n} is negative
+     * @throws InputMismatchException if a token does not match the
+     * <i>Integer</i> regular expression, or is out of range
+     * @throws NoSuchElementException if input is exhausted
+     * @throws IllegalStateException if this scanner is closed
+     */
+    public static int[] nextIntArray(int n) {
+        return nextIntArray(new int[n]);
+    }
+
+    /**
+     * Scans the next {@code a.length} tokens of the input as {@code int}
+     * values in the default radix, storing them in {@code a}. If a token
+     * cannot be scanned, the exception is thrown after the tokens before it
+     * have been consumed and stored.
+     *
+     * @param a the array to fill
+     * @return the array {@code a}
+     * @throws InputMismatchException if a token does not match the
+     * <i>Integer</i> regular expression, or is out of range
+     * @throws NoSuchElementException if input is exhausted
+     * @throws IllegalStateException if this scanner is closed
+     */
+    public static int[] nextIntArray(int[] a) {
+        if (IN != null) {
+            IN.nextIntArray(a, 0, a.length);
+        } else {
+            Scanner s = scanner();
+            for (int i = 0; i < a.length; i++) {
+                a[i] = s.nextInt();
+            }
+        }
+        return a;
+    }
+
+    /**
+     * Scans the next {@code n} tokens of the input as {@code long} values.
+     *
+     * <p>
+     * An invocation of this method of the form {@code nextLongArray(n)}
+     * behaves in exactly the same way as the invocation
+     * {@code nextLongArray(new long[n])}.
+     *
+     * @param n the number of values to scan
+     * @return a new array with the values scanned from the input
+     * @throws NegativeArraySizeException if {@code n} is negative
+     * @throws InputMismatchException if a token does not match the
+     * <i>Integer</i> regular expression, or is out of range
+     * @throws NoSuchElementException if input is exhausted
+     * @throws IllegalStateException if this scanner is closed
+     */
+    public static long[] nextLongArray(int n) {
+        return nextLongArray(new long[n]);
+    }
+
+    /**
+     * Scans the next {@code a.length} tokens of the input as {@code long}
+     * values in the default radix, storing them in {@code a}. If a token
+     * cannot be scanned, the exception is thrown after the tokens before it
+     * have been consumed and stored.
+     *
+     * @param a the array to fill
+     * @return the array {@code a}
+     * @throws InputMismatchException if a token does not match the
+     * <i>Integer</i> regular expression, or is out of range
+     * @throws NoSuchElementException if input is exhausted
+     * @throws IllegalStateException if this scanner is closed
+     */
+    public static long[] nextLongArray(long[] a) {
+        if (IN != null) {
+            IN.nextLongArray(a, 0, a.length);
+        } else {
+            Scanner s = scanner();
+            for (int i = 0; i < a.length; i++) {
+                a[i] = s.nextLong();
+            }
+        }
+        return a;
+    }
+
+    /**
+     * Scans the next {@code n} tokens of the input as {@code double} values.
+     *
+     * <p>
+     * An invocation of this method of the form {@code nextDoubleArray(n)}
+     * behaves in exactly the same way as the invocation
+     * {@code nextDoubleArray(new double[n])}.
+     *
+     * @param n the number of values to scan
+     * @return a new array with the values scanned from the input
+     * @throws NegativeArraySizeException if {@code n} is negative
+     * @throws InputMismatchException if a token does not match the
+     * <i>Float</i> regular expression, or is out of range
+     * @throws NoSuchElementException if input is exhausted
+     * @throws IllegalStateException if this scanner is closed
+     */
+    public static double[] nextDoubleArray(int n) {
+        return nextDoubleArray(new double[n]);
+    }
+
+    /**
+     * Scans the next {@code a.length} tokens of the input as {@code double}
+     * values, storing them in {@code a}. If a token cannot be scanned, the
+     * exception is thrown after the tokens before it have been consumed and
+     * stored.
+     *
+     * @param a the array to fill
+     * @return the array {@code a}
+     * @throws InputMismatchException if a token does not match the
+     * <i>Float</i> regular expression, or is out of range
+     * @throws NoSuchElementException if input is exhausted
+     * @throws IllegalStateException if this scanner is closed
+     */
+    public static double[] nextDoubleArray(double[] a) {
+        if (IN != null) {
+            IN.nextDoubleArray(a, 0, a.length);
+        } else {
+            Scanner s = scanner();
+            for (int i = 0; i < a.length; i++) {
+                a[i] = s.nextDouble();
+            }
+        }
+        return a;
+    }
+
+    /**
+     * Scans the next {@code rows * cols} tokens of the input as {@code int}
+     * values, row by row.
+     *
+     * @param rows the number of rows
+     * @param cols the number of values in each row
+     * @return a new {@code rows} by {@code cols} matrix with the values
+     * scanned from the input
+     * @throws NegativeArraySizeException if {@code rows} or {@code cols} is
+     * negative
+     * @throws InputMismatchException if a token does not match the
+     * <i>Integer</i> regular expression, or is out of range
+     * @throws NoSuchElementException if input is exhausted
+     * @throws IllegalStateException if this scanner is closed
+     */
+    public static int[][] nextIntMatrix(int rows, int cols) {
+        int[][] m = new int[rows][cols];
+        for (int[] row : m) {
+            nextIntArray(row);
+        }
+        return m;
+    }
+
+    /**
+     * Scans the next {@code rows * cols} tokens of the input as {@code long}
+     * values, row by row.
+     *
+     * @param rows the number of rows
+     * @param cols the number of values in each row
+     * @return a new {@code rows} by {@code cols} matrix with the values
+     * scanned from the input
+     * @throws NegativeArraySizeException if {@code rows} or {@code cols} is
+     * negative
+     * @throws InputMismatchException if a token does not match the
+     * <i>Integer</i> regular expression, or is out of range
+     * @throws NoSuchElementException if input is exhausted
+     * @throws IllegalStateException if this scanner is closed
+     */
+    public static long[][] nextLongMatrix(int rows, int cols) {
+        long[][] m = new long[rows][cols];
+        for (long[] row : m) {
+            nextLongArray(row);
+        }
+        return m;
+    }
+
+    /**
+     * Scans the next {@code rows * cols} tokens of the input as {@code double}
+     * values, row by row.
+     *
+     * @param rows the number of rows
+     * @param cols the number of values in each row
+     * @return a new {@code rows} by {@code cols} matrix with the values
+     * scanned from the input
+     * @throws NegativeArraySizeException if {@code rows} or {@code cols} is
+     * negative
+     * @throws InputMismatchException if a token does not match the
+     * <i>Float</i> regular expression, or is out of range
+     * @throws NoSuchElementException if input is exhausted
+     * @throws IllegalStateException if this scanner is closed
+     */
+    public static double[][] nextDoubleMatrix(int rows, int cols) {
+        double[][] m = new double[rows][cols];
+        for (double[] row : m) {
+            nextDoubleArray(row);
+        }
+        return m;
     }
 
     /**
@@ -1654,7 +3002,7 @@ public final class io {
      * @since 1.6
      */
     public static Scanner reset() {
-        return SCN.reset();
+        return scanner().reset();
     }
 
     /**
@@ -1706,12 +3054,153 @@ public final class io {
      * The resulting list would contain {@code "abc"}, {@code "def"}, the empty
      * string, and {@code "ghi"}.
      *
+     * <p>
+     * In fast input mode, when standard input is a regular file, the stream
+     * splits the remaining input at delimiters, so that a parallel stream
+     * tokenizes each part on a separate core.
+     *
      * @return a sequential stream of token strings
      * @throws IllegalStateException if this scanner is closed
      * @since 9
      */
     public static Stream<String> tokens() {
-        return SCN.tokens();
+        return IN != null ? IN.tokens() : scanner().tokens();
+    }
+
+    /**
+     * Returns a stream of {@code int} values scanned from this scanner's
+     * input. The stream contains the same values that would be returned,
+     * starting from this scanner's current state, by calling the
+     * {@link #nextInt()} method repeatedly until the {@link #hasNextInt()}
+     * method returns false, that is, up to the first token that is not an
+     * {@code int} value or the end of input.
+     *
+     * <p>
+     * The resulting stream is sequential and ordered. In fast input mode the
+     * values are parsed straight from the input buffer, so a reduction such
+     * as {@code io.ints().sum()} creates no object per element.
+     *
+     * <p>
+     * In fast input mode, when standard input is a regular file, the stream
+     * splits the remaining input at delimiters, so that a parallel stream
+     * parses each part on a separate core. A stream that has been split
+     * covers every remaining token, and throws
+     * {@code InputMismatchException} at one that is not an {@code int} value.
+     *
+     * <p>
+     * Scanning starts upon initiation of the terminal stream operation.
+     * Subsequent calls to any input method of this class during stream
+     * pipeline execution may cause undefined effects on the returned stream.
+     *
+     * @return a sequential stream of {@code int} values
+     * @throws IllegalStateException if this scanner is closed
+     */
+    public static IntStream ints() {
+        if (IN != null) {
+            return IN.ints();
+        }
+        Scanner s = scanner();
+        return StreamSupport.intStream(new Spliterators.AbstractIntSpliterator(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(IntConsumer action) {
+                if (!s.hasNextInt()) {
+                    return false;
+                }
+                action.accept(s.nextInt());
+                return true;
+            }
+        }, false);
+    }
+
+    /**
+     * Returns a stream of {@code long} values scanned from this scanner's
+     * input. The stream contains the same values that would be returned,
+     * starting from this scanner's current state, by calling the
+     * {@link #nextLong()} method repeatedly until the {@link #hasNextLong()}
+     * method returns false.
+     *
+     * <p>
+     * The resulting stream is sequential and ordered. In fast input mode the
+     * values are parsed straight from the input buffer, with no object
+     * created per element.
+     *
+     * <p>
+     * In fast input mode, when standard input is a regular file, the stream
+     * splits the remaining input at delimiters, so that a parallel stream
+     * parses each part on a separate core. A stream that has been split
+     * covers every remaining token, and throws
+     * {@code InputMismatchException} at one that is not a {@code long} value.
+     *
+     * <p>
+     * Scanning starts upon initiation of the terminal stream operation.
+     * Subsequent calls to any input method of this class during stream
+     * pipeline execution may cause undefined effects on the returned stream.
+     *
+     * @return a sequential stream of {@code long} values
+     * @throws IllegalStateException if this scanner is closed
+     */
+    public static LongStream longs() {
+        if (IN != null) {
+            return IN.longs();
+        }
+        Scanner s = scanner();
+        return StreamSupport.longStream(new Spliterators.AbstractLongSpliterator(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(LongConsumer action) {
+                if (!s.hasNextLong()) {
+                    return false;
+                }
+                action.accept(s.nextLong());
+                return true;
+            }
+        }, false);
+    }
+
+    /**
+     * Returns a stream of {@code double} values scanned from this scanner's
+     * input. The stream contains the same values that would be returned,
+     * starting from this scanner's current state, by calling the
+     * {@link #nextDouble()} method repeatedly until the
+     * {@link #hasNextDouble()} method returns false.
+     *
+     * <p>
+     * The resulting stream is sequential and ordered. In fast input mode the
+     * values are parsed straight from the input buffer, with no object
+     * created per element.
+     *
+     * <p>
+     * In fast input mode, when standard input is a regular file, the stream
+     * splits the remaining input at delimiters, so that a parallel stream
+     * parses each part on a separate core. A stream that has been split
+     * covers every remaining token, and throws
+     * {@code InputMismatchException} at one that is not a {@code double} value.
+     *
+     * <p>
+     * Scanning starts upon initiation of the terminal stream operation.
+     * Subsequent calls to any input method of this class during stream
+     * pipeline execution may cause undefined effects on the returned stream.
+     *
+     * @return a sequential stream of {@code double} values
+     * @throws IllegalStateException if this scanner is closed
+     */
+    public static DoubleStream doubles() {
+        if (IN != null) {
+            return IN.doubles();
+        }
+        Scanner s = scanner();
+        return StreamSupport.doubleStream(new Spliterators.AbstractDoubleSpliterator(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(DoubleConsumer action) {
+                if (!s.hasNextDouble()) {
+                    return false;
+                }
+                action.accept(s.nextDouble());
+                return true;
+            }
+        }, false);
     }
 
     /**
@@ -1765,6 +3254,14 @@ public final class io {
      * }
      * }</pre>
      *
+     * <p>
+     * In fast input mode, when standard input is a regular file, the pattern
+     * is matched against each remaining line in turn, so a match never spans
+     * a line separator, and the stream splits the remaining input at line
+     * separators, so that a parallel stream matches each part on a separate
+     * core. Other input is handed over to the Scanner, as described in
+     * {@link #useFastInput}, and matched as a whole.
+     *
      * @param pattern the pattern to be matched
      * @return a sequential stream of match results
      * @throws NullPointerException if pattern is null
@@ -1772,7 +3269,7 @@ public final class io {
      * @since 9
      */
     public static Stream<MatchResult> findAll(Pattern pattern) {
-        return SCN.findAll(pattern);
+        return IN != null && IN.isFile() ? IN.findAll(pattern) : scanner().findAll(pattern);
     }
 
     /**
@@ -1793,6 +3290,42 @@ public final class io {
      * @see java.util.regex.Pattern
      */
     public static Stream<MatchResult> findAll(String patString) {
-        return SCN.findAll(patString);
+        return findAll(PATTERNS.get(patString));
+    }
+
+    /**
+     * Sets the number of compiled patterns kept by the methods of this class
+     * that take a pattern as a {@code String}, such as {@link #hasNext(String)}
+     * or {@link #useDelimiter(String)}. They share a cache of the patterns
+     * most recently used, so a pattern in the cache is not compiled again.
+     * The initial capacity is 64.
+     *
+     * @param capacity the maximum number of patterns kept
+     * @throws IllegalArgumentException if capacity is negative
+     */
+    public static void usePatternCacheSize(int capacity) {
+        PATTERNS.resize(capacity);
+    }
+
+    /**
+     * Returns how many times a pattern given as a {@code String} was found
+     * in the pattern cache.
+     *
+     * @return the number of cache hits
+     * @see #usePatternCacheSize(int)
+     */
+    public static long patternCacheHits() {
+        return PATTERNS.hits();
+    }
+
+    /**
+     * Returns how many times a pattern given as a {@code String} had to be
+     * compiled because it was not in the pattern cache.
+     *
+     * @return the number of cache misses
+     * @see #usePatternCacheSize(int)
+     */
+    public static long patternCacheMisses() {
+        return PATTERNS.misses();
     }
 }
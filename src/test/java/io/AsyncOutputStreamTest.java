@@ -0,0 +1,157 @@
+package io;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of {@link AsyncOutputStream} with a ring much smaller than the
+ * output and a sink slower than the producers.
+ *
+ * @author pedro
+ */
+class AsyncOutputStreamTest {
+
+    /**
+     * A sink taking at most a few bytes per write, yielding in between.
+     */
+    static final class SlowSink extends OutputStream {
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        volatile boolean closed;
+        volatile int failAfter = -1;
+
+        @Override
+        public synchronized void write(int b) {
+            bytes.write(b);
+        }
+
+        @Override
+        public synchronized void write(byte[] b, int off, int len) throws IOException {
+            if (failAfter >= 0 && bytes.size() + len > failAfter) {
+                throw new IOException("sink failed");
+            }
+            for (int n; len > 0; off += n, len -= n) {
+                n = Math.min(len, 3);
+                bytes.write(b, off, n);
+                Thread.yield();
+            }
+        }
+
+        synchronized byte[] toByteArray() {
+            return bytes.toByteArray();
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    private static void producers(AsyncOutputStream out, SlowSink sink, int threads) throws Exception {
+        Object turn = new Object();
+        List<Thread> list = new ArrayList<>();
+        List<Throwable> errors = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            Thread thread = new Thread(() -> {
+                try {
+                    for (int i = 0; i < 2000; i++) {
+                        byte[] line = (id + ":" + i + "\n").getBytes(StandardCharsets.US_ASCII);
+                        // a single producer at a time
+                        synchronized (turn) {
+                            out.write(line, 0, line.length);
+                            if (i % 500 == 0) {
+                                out.flush();
+                                byte[] b = sink.toByteArray();
+                                assertTrue(new String(b, StandardCharsets.US_ASCII).endsWith(id + ":" + i + "\n"));
+                            }
+                        }
+                    }
+                } catch (Throwable e) {
+                    synchronized (errors) {
+                        errors.add(e);
+                    }
+                }
+            });
+            list.add(thread);
+            thread.start();
+        }
+        for (Thread thread : list) {
+            thread.join();
+        }
+        assertEquals(List.of(), errors);
+    }
+
+    private static void checkOrder(byte[] bytes, int threads) {
+        int[] next = new int[threads];
+        for (String line : new String(bytes, StandardCharsets.US_ASCII).split("\n")) {
+            int colon = line.indexOf(':');
+            int id = Integer.parseInt(line.substring(0, colon));
+            assertEquals(next[id]++, Integer.parseInt(line.substring(colon + 1)), line);
+        }
+        for (int n : next) {
+            assertEquals(2000, n);
+        }
+    }
+
+    @Test
+    void orderAndCloseWithSeveralProducers() throws Exception {
+        for (boolean spin : new boolean[] {false, true}) {
+            SlowSink sink = new SlowSink();
+            AsyncOutputStream out = new AsyncOutputStream(sink, 7, spin);
+            producers(out, sink, 4);
+            out.close();
+            assertTrue(sink.closed);
+            checkOrder(sink.toByteArray(), 4);
+            assertThrows(IOException.class, () -> out.write(1));
+            out.close();
+        }
+    }
+
+    @Test
+    void flushWritesEverything() throws IOException {
+        SlowSink sink = new SlowSink();
+        AsyncOutputStream out = new AsyncOutputStream(sink, 16, false);
+        Random random = new Random(19);
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        for (int i = 0; i < 200; i++) {
+            byte[] b = new byte[random.nextInt(100)];
+            random.nextBytes(b);
+            out.write(b, 0, b.length);
+            out.write(i);
+            expected.write(b, 0, b.length);
+            expected.write(i);
+            if (random.nextInt(10) == 0) {
+                out.flush();
+                assertArrayEquals(expected.toByteArray(), sink.toByteArray());
+            }
+        }
+        out.close();
+        assertArrayEquals(expected.toByteArray(), sink.toByteArray());
+    }
+
+    @Test
+    void flushReportsSinkErrors() {
+        SlowSink sink = new SlowSink();
+        sink.failAfter = 10;
+        AsyncOutputStream out = new AsyncOutputStream(sink, 8, false);
+        assertThrows(IOException.class, () -> {
+            out.write(new byte[20], 0, 20);
+            out.flush();
+        });
+        assertThrows(IOException.class, out::close);
+        assertTrue(sink.closed);
+        assertThrows(IllegalArgumentException.class, () -> new AsyncOutputStream(sink, 0, false));
+    }
+}
@@ -0,0 +1,65 @@
+package io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigInteger;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Diff tests of {@link BigParser} against {@link BigInteger#BigInteger(String, int)}.
+ *
+ * @author pedro
+ */
+class BigParserTest {
+
+    private static String digits(Random random, int n, int radix) {
+        StringBuilder sb = new StringBuilder(n);
+        for (int i = 0; i < n; i++) {
+            sb.append(Character.forDigit(random.nextInt(radix), radix));
+        }
+        return sb.toString();
+    }
+
+    private static BigInteger parse(String s, int radix) {
+        BigParser p = new BigParser(radix);
+        for (int i = 0; i < s.length(); i++) {
+            p.add(Character.digit(s.charAt(i), radix));
+        }
+        assertEquals(s.length(), p.digits());
+        return p.value();
+    }
+
+    @Test
+    void allRadixes() {
+        Random random = new Random(7);
+        for (int radix = Character.MIN_RADIX; radix <= Character.MAX_RADIX; radix++) {
+            for (int i = 0; i < 200; i++) {
+                String s = digits(random, 1 + random.nextInt(1000), radix);
+                assertEquals(new BigInteger(s, radix), parse(s, radix), s);
+            }
+        }
+    }
+
+    @Test
+    void limbBoundaries() {
+        Random random = new Random(8);
+        for (int radix : new int[] {2, 10, 16, 36}) {
+            for (int n = 1; n < 700; n++) {
+                String s = digits(random, n, radix);
+                assertEquals(new BigInteger(s, radix), parse(s, radix), s);
+            }
+        }
+    }
+
+    @Test
+    void hugeNumbers() {
+        Random random = new Random(9);
+        for (int n : new int[] {10_000, 65_537, 200_000}) {
+            String s = digits(random, n, 10);
+            assertEquals(new BigInteger(s), parse(s, 10));
+        }
+        assertEquals(BigInteger.TEN.pow(100_000), parse("1" + "0".repeat(100_000), 10));
+        assertEquals(BigInteger.ZERO, parse("0".repeat(5000), 10));
+    }
+}
@@ -0,0 +1,243 @@
+package io;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.InputMismatchException;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Round-trip tests of {@link BinaryReader} against data written by
+ * {@link DataOutputStream} and little-endian {@link ByteBuffer}s, read from a
+ * stream, a stream returning one byte per read, the same read ahead into small
+ * buffers, and a mapped file.
+ *
+ * @author pedro
+ */
+class BinaryReaderTest {
+
+    private static final long[] VARLONGS = {
+        0, 1, 63, 64, 127, 128, 300, 16383, 16384, Integer.MAX_VALUE, Integer.MIN_VALUE, -1, -64, -65,
+        Long.MAX_VALUE, Long.MIN_VALUE, 1L << 35, -(1L << 35),
+    };
+
+    @TempDir
+    Path dir;
+
+    private List<Function<byte[], FastInput>> inputs() {
+        List<Function<byte[], FastInput>> inputs = new ArrayList<>();
+        inputs.add(b -> io.of(new ByteArrayInputStream(b)));
+        inputs.add(b -> io.of(new FastInputTest.Trickle(b)));
+        inputs.add(b -> new FastInput(new PrefetchInputStream(new FastInputTest.Trickle(b), 2, 5),
+                Charset.defaultCharset()));
+        inputs.add(b -> {
+            try {
+                Path file = Files.createTempFile(dir, "input", ".bin");
+                Files.write(file, b);
+                return io.open(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return inputs;
+    }
+
+    private static void varlong(ByteArrayOutputStream out, long v) {
+        while ((v & ~0x7FL) != 0) {
+            out.write((int) (v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        out.write((int) v);
+    }
+
+    private static long zigzag(long v) {
+        return (v << 1) ^ (v >> 63);
+    }
+
+    @Test
+    void primitivesInBothOrders() throws IOException {
+        Random random = new Random(21);
+        int n = 200;
+        byte[] bytes = new byte[n];
+        short[] shorts = new short[n];
+        int[] ints = new int[n];
+        long[] longs = new long[n];
+        float[] floats = new float[n];
+        double[] doubles = new double[n];
+        random.nextBytes(bytes);
+        for (int i = 0; i < n; i++) {
+            shorts[i] = (short) random.nextInt();
+            ints[i] = random.nextInt();
+            longs[i] = random.nextLong();
+            floats[i] = (float) random.nextGaussian();
+            doubles[i] = random.nextGaussian() * 1e100;
+        }
+        ByteArrayOutputStream big = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(big);
+        ByteBuffer little = ByteBuffer.allocate(27 * n).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < n; i++) {
+            data.writeByte(bytes[i]);
+            data.writeShort(shorts[i]);
+            data.writeInt(ints[i]);
+            data.writeLong(longs[i]);
+            data.writeFloat(floats[i]);
+            data.writeDouble(doubles[i]);
+            little.put(bytes[i]).putShort(shorts[i]).putInt(ints[i]).putLong(longs[i]).putFloat(floats[i])
+                    .putDouble(doubles[i]);
+        }
+        data.write(little.array());
+        for (Function<byte[], FastInput> input : inputs()) {
+            try (FastInput in = input.apply(big.toByteArray())) {
+                BinaryReader r = in.binary(ByteOrder.BIG_ENDIAN);
+                for (ByteOrder order : new ByteOrder[] {ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN}) {
+                    r.order(order);
+                    for (int i = 0; i < n; i++) {
+                        assertEquals(bytes[i], r.readByte());
+                        assertEquals(shorts[i], r.readShort());
+                        assertEquals(ints[i], r.readInt());
+                        assertEquals(longs[i], r.readLong());
+                        assertEquals(floats[i], r.readFloat());
+                        assertEquals(doubles[i], r.readDouble());
+                    }
+                }
+                assertEquals(false, r.hasRemaining());
+                assertThrows(NoSuchElementException.class, r::readByte);
+            }
+        }
+    }
+
+    @Test
+    void arraysAcrossRefills() {
+        Random random = new Random(22);
+        int n = 40_000;
+        ByteBuffer b = ByteBuffer.allocate(5 + 25 * n).order(ByteOrder.LITTLE_ENDIAN);
+        int[] ints = random.ints(n).toArray();
+        long[] longs = random.longs(n).toArray();
+        double[] doubles = random.doubles(n).toArray();
+        float[] floats = new float[n];
+        byte[] bytes = new byte[n];
+        random.nextBytes(bytes);
+        for (int i = 0; i < n; i++) {
+            floats[i] = random.nextFloat();
+        }
+        // an odd offset, so that no value is aligned
+        b.put(new byte[] {1, 2, 3, 4, 5});
+        b.asIntBuffer().put(ints);
+        b.position(b.position() + 4 * n);
+        b.asLongBuffer().put(longs);
+        b.position(b.position() + 8 * n);
+        b.asDoubleBuffer().put(doubles);
+        b.position(b.position() + 8 * n);
+        b.asFloatBuffer().put(floats);
+        b.position(b.position() + 4 * n);
+        b.put(bytes);
+        byte[] data = b.array();
+        for (Function<byte[], FastInput> input : inputs()) {
+            try (FastInput in = input.apply(data)) {
+                BinaryReader r = in.binary(ByteOrder.LITTLE_ENDIAN);
+                assertEquals(5, r.skip(5));
+                assertArrayEquals(ints, r.readInts(new int[n], 0, n));
+                long[] l = new long[n + 2];
+                r.readLongs(l, 1, n);
+                for (int i = 0; i < n; i++) {
+                    assertEquals(longs[i], l[i + 1]);
+                }
+                assertArrayEquals(doubles, r.readDoubles(new double[n], 0, n));
+                assertArrayEquals(floats, r.readFloats(new float[n], 0, n));
+                assertArrayEquals(bytes, r.readBytes(new byte[n], 0, n));
+                assertThrows(NoSuchElementException.class, () -> r.readInts(new int[1], 0, 1));
+                assertEquals(0, r.skip(10));
+            }
+        }
+    }
+
+    @Test
+    void varints() {
+        Random random = new Random(23);
+        List<Long> values = new ArrayList<>();
+        for (long v : VARLONGS) {
+            values.add(v);
+        }
+        for (int i = 0; i < 2000; i++) {
+            values.add(random.nextLong() >> random.nextInt(64));
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (long v : values) {
+            varlong(out, v);
+            varlong(out, (long) (int) v);
+            varlong(out, zigzag(v));
+            varlong(out, zigzag((int) v) & 0xFFFFFFFFL);
+        }
+        for (Function<byte[], FastInput> input : inputs()) {
+            try (FastInput in = input.apply(out.toByteArray())) {
+                BinaryReader r = in.binary(ByteOrder.BIG_ENDIAN);
+                for (long v : values) {
+                    assertEquals(v, r.readVarlong());
+                    assertEquals((int) v, r.readVarint());
+                    assertEquals(v, r.readSignedVarlong());
+                    assertEquals((int) v, r.readSignedVarint());
+                }
+                assertEquals(false, r.hasRemaining());
+            }
+        }
+    }
+
+    @Test
+    void malformedVarints() {
+        byte[] overlong = new byte[11];
+        Arrays.fill(overlong, (byte) 0x80);
+        byte[] truncated = {0x05, (byte) 0x80, (byte) 0x80};
+        for (Function<byte[], FastInput> input : inputs()) {
+            try (FastInput in = input.apply(overlong)) {
+                assertThrows(InputMismatchException.class, in.binary(ByteOrder.BIG_ENDIAN)::readVarlong);
+            }
+            try (FastInput in = input.apply(truncated)) {
+                BinaryReader r = in.binary(ByteOrder.BIG_ENDIAN);
+                assertEquals(5, r.readVarint());
+                assertThrows(NoSuchElementException.class, r::readVarint);
+            }
+        }
+    }
+
+    @Test
+    void recordsAndText() {
+        ByteBuffer b = ByteBuffer.allocate(3 + 12 * 100).order(ByteOrder.LITTLE_ENDIAN);
+        b.put("42 ".getBytes(StandardCharsets.US_ASCII));
+        for (int i = 0; i < 100; i++) {
+            b.putInt(i).putDouble(i / 4.0);
+        }
+        for (Function<byte[], FastInput> input : inputs()) {
+            try (FastInput in = input.apply(b.array())) {
+                assertEquals(42, in.nextInt());
+                BinaryReader r = in.binary(ByteOrder.LITTLE_ENDIAN);
+                assertEquals(1, r.skip(1));
+                for (int i = 0; i < 100; i++) {
+                    ByteBuffer record = r.nextRecord(12);
+                    assertEquals(12, record.remaining());
+                    assertEquals(i, record.getInt(0));
+                    assertEquals(i / 4.0, record.getDouble(4));
+                }
+                assertThrows(NoSuchElementException.class, () -> r.nextRecord(1));
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of {@link CsvReader} over a stream, and over a stream returning one
+ * byte per read, so that every field and quote crosses a read boundary.
+ *
+ * @author pedro
+ */
+class CsvReaderTest {
+
+    private static List<List<String>> read(InputStream stream) throws IOException {
+        List<List<String>> records = new ArrayList<>();
+        try (FastInput in = io.of(stream)) {
+            CsvReader csv = in.csv(',');
+            while (csv.next()) {
+                List<String> record = new ArrayList<>();
+                for (int i = 0; i < csv.fields(); i++) {
+                    record.add(csv.getString(i));
+                }
+                records.add(record);
+            }
+        }
+        return records;
+    }
+
+    private static List<List<String>> read(String s, boolean trickle) throws IOException {
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        return read(trickle ? new FastInputTest.Trickle(b) : new ByteArrayInputStream(b));
+    }
+
+    @Test
+    void quotesAcrossReads() throws IOException {
+        String s = "1,\"a,\"\"b\"\"\r\nc\",2.5\r\n";
+        List<List<String>> expected = List.of(List.of("1", "a,\"b\"\r\nc", "2.5"));
+        assertEquals(expected, read(s, false));
+        assertEquals(expected, read(s, true));
+    }
+
+    @Test
+    void quotesAtEndOfInput() throws IOException {
+        for (String s : new String[] {"\"\"", "\"\"\"\"", "a,\"b\"\"\"", "\"a", "\"a\"\""}) {
+            assertEquals(read(s, false), read(s, true), s);
+        }
+        assertEquals(List.of(List.of("\"")), read("\"\"\"\"", true));
+        assertEquals(List.of(List.of("b\"")), read("\"b\"\"\"", true));
+    }
+
+    @Test
+    void randomFields() throws IOException {
+        Random random = new Random(13);
+        String alphabet = "ab,\"\"\r\n";
+        for (int round = 0; round < 200; round++) {
+            StringBuilder sb = new StringBuilder();
+            for (int i = random.nextInt(200); i > 0; i--) {
+                sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            String s = sb.toString();
+            assertEquals(read(s, false), read(s, true), s);
+        }
+    }
+
+    @Test
+    void headerAndSelect() throws IOException {
+        String s = "id,name,price\r\n1,\"x, \"\"y\"\"\",2.5\n2,z,3\n";
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        try (FastInput in = io.of(new FastInputTest.Trickle(b))) {
+            CsvReader csv = in.csv(',').header().select("price", "name");
+            assertEquals(Arrays.asList("id", "name", "price"), csv.names());
+            int price = csv.column("price");
+            assertEquals(true, csv.next());
+            assertEquals(2.5, csv.getDouble(price));
+            assertEquals("x, \"y\"", csv.getString("name"));
+            assertEquals(true, csv.next());
+            assertEquals(3, csv.getInt("price"));
+            assertEquals("z", csv.getString("name"));
+            assertEquals(false, csv.next());
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Diff tests of {@link DoubleFormatter} against {@link Double#toString},
+ * {@link Float#toString} and {@code String.format}.
+ *
+ * <p>
+ * Before Java 19, {@code Double.toString} sometimes prints one digit more
+ * than needed, and {@code Float.toString} does not always pick the closest
+ * of the shortest digits, so there the output is checked to read back as
+ * the same value, to be no longer and no farther from the value, and
+ * compared exactly only on Java 19 and later.
+ *
+ * @author pedro
+ */
+class DoubleFormatterTest {
+
+    private static final boolean SHORTEST_TO_STRING = Runtime.version().feature() >= 19;
+
+    private static final double[] EDGE_CASES = {
+        0.0, -0.0, 1.0, -1.0, 0.1, 0.001, 0.0001, 1e7, 9999999.0, 1e-3, 1e-4, 123456789.0, 2e-323,
+        Double.MIN_VALUE, Double.MIN_NORMAL, Double.MAX_VALUE, 1e23, 9.007199254740993e15, 5e-324, 1.0E22,
+        2.0E-3, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY,
+    };
+
+    private final DoubleFormatter formatter = new DoubleFormatter();
+    private final byte[] buf = new byte[32];
+
+    private String format(double d) {
+        return new String(buf, 0, formatter.format(d, buf, 0), StandardCharsets.ISO_8859_1);
+    }
+
+    private String format(float f) {
+        return new String(buf, 0, formatter.format(f, buf, 0), StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Checks the output of a value that reads back as {@code value}, against
+     * {@code expected} as {@code toString} prints it.
+     */
+    private static void check(String s, String expected, double value, boolean readsBack) {
+        if (SHORTEST_TO_STRING || expected.equals(s) || Double.isNaN(value) || Double.isInfinite(value)) {
+            assertEquals(expected, s);
+            return;
+        }
+        assertTrue(readsBack, s);
+        assertTrue(s.length() <= expected.length(), s + " " + expected);
+        if (s.length() == expected.length()) {
+            // of the shortest digits, the ones closest to the value
+            BigDecimal exact = new BigDecimal(value);
+            assertTrue(new BigDecimal(s).subtract(exact).abs()
+                    .compareTo(new BigDecimal(expected).subtract(exact).abs()) <= 0, s + " " + expected);
+        }
+    }
+
+    private void check(double d) {
+        String s = format(d);
+        check(s, Double.toString(d), d, Double.isFinite(d)
+                && Double.doubleToLongBits(d) == Double.doubleToLongBits(Double.parseDouble(s)));
+    }
+
+    private void check(float f) {
+        String s = format(f);
+        check(s, Float.toString(f), f, Float.isFinite(f)
+                && Float.floatToIntBits(f) == Float.floatToIntBits(Float.parseFloat(s)));
+    }
+
+    @Test
+    void edgeCases() {
+        for (double d : EDGE_CASES) {
+            check(d);
+            check((float) d);
+        }
+    }
+
+    @Test
+    void randomBits() {
+        Random random = new Random(4);
+        for (int i = 0; i < 500_000; i++) {
+            check(Double.longBitsToDouble(random.nextLong()));
+            check(Float.intBitsToFloat(random.nextInt()));
+        }
+    }
+
+    @Test
+    void randomDecimals() {
+        Random random = new Random(5);
+        for (int i = 0; i < 200_000; i++) {
+            check(random.nextInt(1_000_000) / Math.pow(10, random.nextInt(12)));
+        }
+    }
+
+    private static void checkFixed(double d, int decimals) {
+        assertEquals(String.format(Locale.ROOT, "%." + decimals + "f", d), DoubleFormatter.toString(d, decimals),
+                d + " " + decimals);
+    }
+
+    @Test
+    void fixedDecimals() {
+        Random random = new Random(6);
+        for (int i = 0; i < 200_000; i++) {
+            double d = random.nextInt(2_000_000_000) / Math.pow(10, random.nextInt(12));
+            if (random.nextBoolean()) {
+                d = -d;
+            }
+            checkFixed(d, random.nextInt(10));
+        }
+    }
+
+    @Test
+    void fixedDecimalsOfAnyMagnitude() {
+        // from 10^16, the digits of Double.toString before Java 19 differ
+        checkFixed(6.8958874632826544E16, 0);
+        checkFixed(7.1114939685194496E17, 0);
+        checkFixed(2.82879384806159E17, 1);
+        Random random = new Random(14);
+        for (int i = 0; i < 200_000; i++) {
+            double d = random.nextBoolean() ? Double.longBitsToDouble(random.nextLong())
+                    : random.nextLong() / Math.pow(10, random.nextInt(20));
+            if (Double.isFinite(d) && Math.abs(d) < 1e30) {
+                checkFixed(d, random.nextInt(18));
+            }
+        }
+    }
+}
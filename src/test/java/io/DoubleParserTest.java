@@ -0,0 +1,120 @@
+package io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Diff tests of {@link DoubleParser} against {@link Double#parseDouble} and
+ * {@link Float#parseFloat}.
+ *
+ * @author pedro
+ */
+class DoubleParserTest {
+
+    private static final String[] EDGE_CASES = {
+        "0", "-0", "0.0", "+0.0", "1", "-1", ".5", "5.", "+1.5", "-.25e+3", "1e5", "1E-5", "007.50",
+        "4.9e-324", "4.9E-324", "2.4703282292062327e-324", "2.4703282292062328e-324", "5e-324", "1e-400",
+        "2.2250738585072011e-308", "2.2250738585072014e-308", "1.7976931348623157e308",
+        "1.7976931348623158e308", "1.7976931348623159e308", "1e309", "1e400", "9007199254740992",
+        "9007199254740993", "9007199254740995", "1e22", "1e23", "8.41e21", "3.4028235e38", "3.4028236e38",
+        "1.4e-45", "7.006492321624085e-46", "1.17549435E-38", "16777217", "1234567890123456789",
+        "12345678901234567890", "0.1234567890123456789", "9223372036854775807", "9223372036854775808",
+        "18446744073709551616", "0.000000000000000000000000000001", "123456789012345678901234567890e-10",
+        "NaN", "-NaN", "Infinity", "-Infinity", "+Infinity", "0x1.8p1", "-0x1.0p-1074", "0X.8P0",
+    };
+
+    private static final String[] INVALID = {
+        "", "-", "+", ".", "e5", "1e", "1e+", "1.5d", "1.5F", "1f", " 1", "1 ", "\t1", "1..2", "--1",
+        "1e5.5", "0x1p3", "0x1.8", "0x10", "Inf", "nan", "1,5", "1_0",
+    };
+
+    private static double parseDouble(String s) {
+        byte[] b = s.getBytes(StandardCharsets.ISO_8859_1);
+        return DoubleParser.parseDouble(ByteBuffer.wrap(b), 0, b.length);
+    }
+
+    private static float parseFloat(String s) {
+        byte[] b = s.getBytes(StandardCharsets.ISO_8859_1);
+        return DoubleParser.parseFloat(ByteBuffer.wrap(b), 0, b.length);
+    }
+
+    private static void check(String s) {
+        assertEquals(Double.doubleToRawLongBits(Double.parseDouble(s)),
+                Double.doubleToRawLongBits(parseDouble(s)), s);
+        assertEquals(Float.floatToRawIntBits(Float.parseFloat(s)), Float.floatToRawIntBits(parseFloat(s)), s);
+    }
+
+    @Test
+    void edgeCases() {
+        for (String s : EDGE_CASES) {
+            check(s);
+        }
+    }
+
+    @Test
+    void rejectsWhatScannerRejects() {
+        for (String s : INVALID) {
+            assertThrows(NumberFormatException.class, () -> parseDouble(s), s);
+            assertThrows(NumberFormatException.class, () -> parseFloat(s), s);
+        }
+    }
+
+    @Test
+    void shortestRepresentations() {
+        Random random = new Random(1);
+        for (int i = 0; i < 200_000; i++) {
+            double d = Double.longBitsToDouble(random.nextLong());
+            if (!Double.isNaN(d)) {
+                check(Double.toString(d));
+            }
+            check(Float.toString(Float.intBitsToFloat(random.nextInt())));
+        }
+    }
+
+    @Test
+    void randomDigits() {
+        Random random = new Random(2);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 200_000; i++) {
+            sb.setLength(0);
+            if (random.nextBoolean()) {
+                sb.append('-');
+            }
+            int digits = 1 + random.nextInt(random.nextBoolean() ? 19 : 30);
+            int point = random.nextInt(digits + 1);
+            for (int k = 0; k < digits; k++) {
+                if (k == point) {
+                    sb.append('.');
+                }
+                sb.append((char) ('0' + random.nextInt(10)));
+            }
+            if (random.nextBoolean()) {
+                sb.append('e').append(random.nextInt(700) - 350);
+            }
+            check(sb.toString());
+        }
+    }
+
+    @Test
+    void halfwayCases() {
+        // the midpoints between neighbours, and decimals close to them
+        Random random = new Random(3);
+        for (int i = 0; i < 20_000; i++) {
+            double d = Math.abs(Double.longBitsToDouble(random.nextLong()));
+            if (Double.isNaN(d) || Double.isInfinite(d) || d == Double.MAX_VALUE) {
+                continue;
+            }
+            BigDecimal mid = new BigDecimal(d).add(new BigDecimal(Math.nextUp(d))).divide(BigDecimal.valueOf(2));
+            check(mid.toString());
+            check(mid.round(new MathContext(17)).toString());
+            check(mid.round(new MathContext(19)).toString());
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Scanner;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Diff tests of {@link FastInput} against {@link Scanner}, over a stream, a
+ * stream returning one byte per read, the same read ahead into small buffers,
+ * and a mapped file.
+ *
+ * @author pedro
+ */
+class FastInputTest {
+
+    private static final String[] TOKENS = {
+        "0", "-0", "+5", "007", "127", "128", "-129", "32767", "32768", "2147483647", "2147483648",
+        "-2147483648", "-2147483649", "9223372036854775807", "9223372036854775808", "-9223372036854775808",
+        "123456789012345678901234567890", "-000000000000000000000000000001", "1.5", "-.5", "5.", "+.5e-3",
+        "1e5", "1E-5", "1e400", "4.9e-324", "NaN", "-NaN", "Infinity", "-Infinity", "0x1.8p1", "-0X.8P0",
+        "0x1p3", "0x1.8", "0x10", "1.5d", "1.5f", "1.5F", "true", "FALSE", "tRuE", "truth", "abc", "-", "+",
+        "1-", "1e", "e1", ".", "1..5", "--1", "1_000", "0.1234567890123456789012345",
+    };
+
+    @TempDir
+    Path dir;
+
+    /**
+     * A stream returning at most one byte per read, as a pipe may.
+     */
+    static final class Trickle extends InputStream {
+
+        private final ByteArrayInputStream in;
+
+        Trickle(byte[] b) {
+            in = new ByteArrayInputStream(b);
+        }
+
+        @Override
+        public int read() {
+            return in.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            return in.read(b, off, Math.min(len, 1));
+        }
+    }
+
+    private List<Function<String, FastInput>> inputs() {
+        List<Function<String, FastInput>> inputs = new ArrayList<>();
+        inputs.add(s -> io.of(new ByteArrayInputStream(s.getBytes(StandardCharsets.US_ASCII))));
+        inputs.add(s -> io.of(new Trickle(s.getBytes(StandardCharsets.US_ASCII))));
+        inputs.add(s -> new FastInput(new PrefetchInputStream(new Trickle(s.getBytes(StandardCharsets.US_ASCII)), 2, 5),
+                Charset.defaultCharset()));
+        inputs.add(s -> {
+            try {
+                Path file = Files.createTempFile(dir, "input", ".txt");
+                Files.write(file, s.getBytes(StandardCharsets.US_ASCII));
+                return io.open(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return inputs;
+    }
+
+    private static Scanner scanner(String s) {
+        return new Scanner(s).useLocale(Locale.US);
+    }
+
+    /**
+     * Returns the value scanned, or the class of the exception thrown.
+     */
+    private static Object result(Callable<Object> call) {
+        try {
+            return call.call();
+        } catch (Exception e) {
+            return e.getClass();
+        }
+    }
+
+    private interface Scan {
+        Object next(Scanner sc, FastInput in) throws Exception;
+    }
+
+    private static final Scan[][] NEXT = {
+        {(sc, in) -> sc.nextByte(), (sc, in) -> in.nextByte()},
+        {(sc, in) -> sc.nextShort(), (sc, in) -> in.nextShort()},
+        {(sc, in) -> sc.nextInt(), (sc, in) -> in.nextInt()},
+        {(sc, in) -> sc.nextLong(), (sc, in) -> in.nextLong()},
+        {(sc, in) -> sc.nextFloat(), (sc, in) -> in.nextFloat()},
+        {(sc, in) -> sc.nextDouble(), (sc, in) -> in.nextDouble()},
+        {(sc, in) -> sc.nextBigInteger(), (sc, in) -> in.nextBigInteger()},
+        {(sc, in) -> sc.nextBigDecimal(), (sc, in) -> in.nextBigDecimal()},
+        {(sc, in) -> sc.nextBoolean(), (sc, in) -> in.nextBoolean()},
+    };
+
+    @Test
+    void numbersAndBooleans() throws IOException {
+        for (Function<String, FastInput> input : inputs()) {
+            for (String t : TOKENS) {
+                String s = " " + t + " end";
+                Scanner sc = scanner(s);
+                try (FastInput in = input.apply(s)) {
+                    assertEquals(sc.hasNextByte(), in.hasNextByte(), t);
+                    assertEquals(sc.hasNextShort(), in.hasNextShort(), t);
+                    assertEquals(sc.hasNextInt(), in.hasNextInt(), t);
+                    assertEquals(sc.hasNextLong(), in.hasNextLong(), t);
+                    assertEquals(sc.hasNextFloat(), in.hasNextFloat(), t);
+                    assertEquals(sc.hasNextDouble(), in.hasNextDouble(), t);
+                    assertEquals(sc.hasNextBigInteger(), in.hasNextBigInteger(), t);
+                    assertEquals(sc.hasNextBigDecimal(), in.hasNextBigDecimal(), t);
+                    assertEquals(sc.hasNextBoolean(), in.hasNextBoolean(), t);
+                }
+                for (Scan[] next : NEXT) {
+                    Scanner sc2 = scanner(s);
+                    try (FastInput in = input.apply(s)) {
+                        assertEquals(result(() -> next[0].next(sc2, null)), result(() -> next[1].next(null, in)), t);
+                        assertEquals(sc2.nextLine(), in.nextLine(), t);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void radix() throws IOException {
+        String s = "ff -7fffffff 80000000 -80000000 zz 7FFFFFFFFFFFFFFF 10 g";
+        for (Function<String, FastInput> input : inputs()) {
+            Scanner sc = scanner(s).useRadix(16);
+            try (FastInput in = input.apply(s)) {
+                in.useRadix(16);
+                while (sc.hasNext()) {
+                    assertEquals(sc.hasNextInt(), in.hasNextInt());
+                    assertEquals(result(sc::nextLong), result(in::nextLong));
+                    assertEquals(sc.next(), in.next());
+                }
+                assertEquals(false, in.hasNext());
+            }
+        }
+    }
+
+    @Test
+    void hugeNumbers() throws IOException {
+        Random random = new Random(10);
+        StringBuilder sb = new StringBuilder();
+        for (int n : new int[] {1000, 20_000, 100_000}) {
+            sb.append(random.nextBoolean() ? '-' : '+').append(1 + random.nextInt(9));
+            for (int i = 1; i < n; i++) {
+                sb.append(random.nextInt(10));
+            }
+            sb.append(' ');
+            for (int i = 0; i < n; i++) {
+                sb.append(random.nextInt(10));
+            }
+            sb.append('.');
+            for (int i = 0; i < n; i++) {
+                sb.append(random.nextInt(10));
+            }
+            sb.append("e-").append(n).append('\n');
+        }
+        String s = sb.toString();
+        for (Function<String, FastInput> input : inputs()) {
+            Scanner sc = scanner(s);
+            try (FastInput in = input.apply(s)) {
+                while (sc.hasNext()) {
+                    assertEquals(sc.nextBigInteger(), in.nextBigInteger());
+                    assertEquals(sc.nextBigDecimal(), in.nextBigDecimal());
+                }
+                assertEquals(false, in.hasNext());
+            }
+        }
+    }
+
+    private static String randomText(Random random, String alphabet, int n) {
+        StringBuilder sb = new StringBuilder(n);
+        for (int i = 0; i < n; i++) {
+            sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return sb.toString();
+    }
+
+    @Test
+    void tokensAndLines() throws IOException {
+        Random random = new Random(11);
+        for (int round = 0; round < 20; round++) {
+            String s = randomText(random, "ab1-. \t\n\n\r", 5000);
+            for (Function<String, FastInput> input : inputs()) {
+                Scanner sc = scanner(s);
+                Random ops = new Random(round);
+                try (FastInput in = input.apply(s)) {
+                    for (int i = 0; i < 3000; i++) {
+                        switch (ops.nextInt(4)) {
+                            case 0:
+                                assertEquals(result(sc::next), result(in::next));
+                                break;
+                            case 1:
+                                assertEquals(result(sc::nextLine), result(in::nextLine));
+                                break;
+                            case 2:
+                                assertEquals(result(sc::nextInt), result(in::nextInt));
+                                break;
+                            default:
+                                assertEquals(sc.hasNextLine(), in.hasNextLine());
+                                assertEquals(sc.hasNext(), in.hasNext());
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void delimiters() throws IOException {
+        String[] patterns = {",", "\t", "\\|", "[,;]", "[ \t]+", ",+", "\\s", "\\s+"};
+        Random random = new Random(12);
+        for (String pattern : patterns) {
+            String s = randomText(random, "ab1,,;| \t\n", 3000);
+            for (Function<String, FastInput> input : inputs()) {
+                Scanner sc = scanner(s).useDelimiter(pattern);
+                try (FastInput in = input.apply(s)) {
+                    assertEquals(true, in.useDelimiter(Pattern.compile(pattern)), pattern);
+                    while (sc.hasNext()) {
+                        assertEquals(sc.hasNextInt(), in.hasNextInt(), pattern);
+                        assertEquals(sc.next(), in.next(), pattern);
+                    }
+                    assertEquals(false, in.hasNext(), pattern);
+                }
+            }
+        }
+    }
+
+    @Test
+    void numberCharactersAsDelimiters() throws IOException {
+        String[] patterns = {"-", "\\+", "\\.", "e", "0"};
+        Random random = new Random(17);
+        for (String pattern : patterns) {
+            List<String> texts = new ArrayList<>(List.of("5--7", "5-+7", "-1-+2--3.5e-1-", "1.5.e5", "100e-5"));
+            for (int round = 0; round < 20; round++) {
+                texts.add(randomText(random, "0125-+.e", 200));
+            }
+            for (String s : texts) {
+                for (Function<String, FastInput> input : inputs()) {
+                    Scanner sc = scanner(s).useDelimiter(pattern);
+                    Random ops = new Random(s.hashCode());
+                    try (FastInput in = input.apply(s)) {
+                        assertEquals(true, in.useDelimiter(Pattern.compile(pattern)), pattern);
+                        for (int i = 0; i < 300 && sc.hasNext(); i++) {
+                            String m = pattern + " " + s;
+                            assertEquals(sc.hasNextInt(), in.hasNextInt(), m);
+                            assertEquals(sc.hasNextBigInteger(), in.hasNextBigInteger(), m);
+                            assertEquals(sc.hasNextBigDecimal(), in.hasNextBigDecimal(), m);
+                            assertEquals(sc.hasNextDouble(), in.hasNextDouble(), m);
+                            switch (ops.nextInt(5)) {
+                                case 0:
+                                    assertEquals(result(sc::nextInt), result(in::nextInt), m);
+                                    break;
+                                case 1:
+                                    assertEquals(result(sc::nextBigInteger), result(in::nextBigInteger), m);
+                                    break;
+                                case 2:
+                                    assertEquals(result(sc::nextBigDecimal), result(in::nextBigDecimal), m);
+                                    break;
+                                case 3:
+                                    assertEquals(result(sc::nextDouble), result(in::nextDouble), m);
+                                    break;
+                                default:
+                                    assertEquals(sc.next(), in.next(), m);
+                            }
+                        }
+                        assertEquals(sc.hasNext(), in.hasNext(), pattern + " " + s);
+                    }
+                }
+            }
+        }
+    }
+}
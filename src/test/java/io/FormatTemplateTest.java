@@ -0,0 +1,140 @@
+package io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+import java.util.Locale;
+import java.util.Random;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Diff tests of {@link FormatTemplate} against {@code String.format}.
+ *
+ * @author pedro
+ */
+class FormatTemplateTest {
+
+    private static final String[] FORMATS = {
+        "%f%n", "%.0f%n", "%.3f|", "%12.3f|", "%-12.2f|", "%012.4f|", "%.17f|", "%d %s %c %b%n",
+        "%5d|%-5d|%05d|", "%10s|%-10s|%.2s|", "%x %e %g|", "%2$s %1$s|",
+    };
+
+    private static final Locale[] LOCALES = {
+        Locale.ROOT, Locale.US, Locale.GERMANY, Locale.FRANCE, Locale.forLanguageTag("ar-EG"),
+    };
+
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    private PrintStream out;
+
+    @BeforeEach
+    void captureOutput() {
+        out = System.out;
+        System.setOut(new PrintStream(bytes, true));
+    }
+
+    @AfterEach
+    void restoreOutput() {
+        System.setOut(out);
+    }
+
+    private String printed() {
+        String s = new String(bytes.toByteArray(), Charset.defaultCharset());
+        bytes.reset();
+        return s;
+    }
+
+    /**
+     * Returns the output of {@code String.format}, as printed in the default
+     * charset.
+     */
+    private static String expected(Locale locale, String format, Object... args) {
+        Charset charset = Charset.defaultCharset();
+        return new String(String.format(locale, format, args).getBytes(charset), charset);
+    }
+
+    private static double randomDouble(Random random) {
+        switch (random.nextInt(4)) {
+            case 0:
+                return Double.longBitsToDouble(random.nextLong());
+            case 1:
+                return random.nextLong() / Math.pow(10, random.nextInt(20));
+            case 2:
+                return random.nextInt(2_000_000_000) / Math.pow(10, random.nextInt(12));
+            default:
+                return random.nextInt(2) == 0 ? -0.0 : 0.5;
+        }
+    }
+
+    private static Object[] arguments(String format, Random random) {
+        int n = format.startsWith("%2$") ? 2 : format.split("%[^n%]", -1).length - 1;
+        Object[] args = new Object[n];
+        for (int i = 0; i < n; i++) {
+            char conversion = format.split("%[^a-zA-Z]*", -1)[i + 1].charAt(0);
+            switch (conversion) {
+                case 'f':
+                case 'e':
+                case 'g':
+                    args[i] = random.nextInt(8) == 0 ? (Object) (float) randomDouble(random) : randomDouble(random);
+                    break;
+                case 'd':
+                case 'x':
+                    args[i] = random.nextBoolean() ? (Object) random.nextInt() : random.nextLong() >> random.nextInt(64);
+                    break;
+                case 'c':
+                    args[i] = (char) ('a' + random.nextInt(26));
+                    break;
+                case 'b':
+                    args[i] = random.nextBoolean() ? random.nextBoolean() : null;
+                    break;
+                default:
+                    args[i] = Long.toString(random.nextLong(), 36);
+            }
+        }
+        return args;
+    }
+
+    @Test
+    void printMatchesStringFormat() {
+        Random random = new Random(15);
+        for (Locale locale : LOCALES) {
+            for (String format : FORMATS) {
+                FormatTemplate template = new FormatTemplate(format, locale);
+                for (int i = 0; i < 2000; i++) {
+                    Object[] args = arguments(format, random);
+                    template.print(args);
+                    assertEquals(expected(locale, format, args), printed(), format + " " + locale);
+                }
+            }
+        }
+    }
+
+    @Test
+    void putMatchesStringFormat() {
+        Random random = new Random(16);
+        for (Locale locale : LOCALES) {
+            for (String format : new String[] {"%.0f%n", "%12.3f|", "%-12.2f|", "%012.4f|", "%.9f|"}) {
+                FormatTemplate template = new FormatTemplate(format, locale);
+                for (int i = 0; i < 2000; i++) {
+                    double d = randomDouble(random);
+                    template.put(d);
+                    assertEquals(expected(locale, format, d), printed(), format + " " + locale);
+                }
+            }
+        }
+    }
+
+    @Test
+    void digitsOfLargeValues() {
+        // before Java 19, the digits of String.format from 10^16 are not
+        // always the shortest ones
+        FormatTemplate template = new FormatTemplate("%.0f %.1f%n", Locale.ROOT);
+        for (double d : new double[] {6.8958874632826544E16, 7.1114939685194496E17, 2.82879384806159E17}) {
+            template.print(d, d);
+            assertEquals(expected(Locale.ROOT, "%.0f %.1f%n", d, d), printed());
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.regex.MatchResult;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests that the streams of a file-backed {@link FastInput} give the same
+ * elements split as unsplit, including an element straddling the point
+ * where the file is cut in two.
+ *
+ * @author pedro
+ */
+class InputSpliteratorTest {
+
+    @TempDir
+    Path dir;
+
+    /**
+     * Writes a file of random numbers of more than two megabytes whose middle
+     * byte lies inside a long token, within a long line.
+     */
+    private Path file(String separator) throws IOException {
+        Random random = new Random(18);
+        StringBuilder half = new StringBuilder();
+        while (half.length() < 3 << 19) {
+            half.append(random.nextInt() & Integer.MAX_VALUE).append(random.nextInt(8) == 0 ? "\n" : separator);
+        }
+        String straddling = "7".repeat(9) + separator + "1".repeat(15) + separator + "7".repeat(9);
+        String s = half + straddling + half.reverse() + "\n";
+        assertEquals('1', s.charAt(s.length() / 2));
+        Path file = dir.resolve("numbers.txt");
+        Files.write(file, s.getBytes(StandardCharsets.US_ASCII));
+        return file;
+    }
+
+    /**
+     * Returns the elements of the spliterator, splitting it recursively.
+     */
+    private static <T> void collect(Spliterator<T> s, List<T> list, int depth) {
+        Spliterator<T> prefix = depth < 4 ? s.trySplit() : null;
+        if (depth == 0) {
+            assertNotNull(prefix);
+        }
+        if (prefix != null) {
+            collect(prefix, list, depth + 1);
+            collect(s, list, depth + 1);
+        } else {
+            s.forEachRemaining(list::add);
+        }
+    }
+
+    @Test
+    void tokens() throws IOException {
+        Path file = file(" ");
+        List<String> expected;
+        try (FastInput in = io.open(file)) {
+            expected = in.tokens().collect(Collectors.toList());
+        }
+        try (FastInput in = io.open(file)) {
+            List<String> split = new ArrayList<>();
+            collect(new InputSpliterator.Tokens(in), split, 0);
+            assertEquals(expected, split);
+        }
+        try (FastInput in = io.open(file)) {
+            assertEquals(expected, in.tokens().parallel().collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    void numbers() throws IOException {
+        Path file = file("\t");
+        List<Long> expected;
+        try (FastInput in = io.open(file)) {
+            expected = in.longs().boxed().collect(Collectors.toList());
+        }
+        try (FastInput in = io.open(file)) {
+            List<Long> split = new ArrayList<>();
+            collect(new InputSpliterator.Longs(in), split, 0);
+            assertEquals(expected, split);
+        }
+        try (FastInput in = io.open(file)) {
+            assertEquals(expected.stream().mapToLong(Long::longValue).sum(), in.longs().parallel().sum());
+        }
+        try (FastInput in = io.open(file)) {
+            assertEquals(expected.stream().mapToDouble(Long::doubleValue).sum(),
+                    in.doubles().parallel().sum(), 1e-3 * expected.size());
+        }
+    }
+
+    @Test
+    void matches() throws IOException {
+        Path file = file(" ");
+        Pattern pattern = Pattern.compile("-?1+\\b");
+        List<String> expected;
+        try (FastInput in = io.open(file)) {
+            expected = in.findAll(pattern).map(MatchResult::group).collect(Collectors.toList());
+        }
+        try (FastInput in = io.open(file)) {
+            List<MatchResult> split = new ArrayList<>();
+            collect(new InputSpliterator.Matches(in, pattern), split, 0);
+            assertEquals(expected, split.stream().map(MatchResult::group).collect(Collectors.toList()));
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that {@link OrderedOutput} writes chunks in the order of their
+ * numbers, whatever the threads ending them and the order they end in.
+ *
+ * @author pedro
+ */
+class OrderedOutputTest {
+
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    private final Charset charset = StandardCharsets.UTF_8;
+    private final FastOutput out = new FastOutput(bytes, 64, charset);
+    private final OrderedOutput ordered = new OrderedOutput(out, new PrintStream(out, false, charset), charset);
+
+    private String merged() {
+        out.flush();
+        return new String(bytes.toByteArray(), charset);
+    }
+
+    private static String chunk(int sequence) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i <= sequence % 50; i++) {
+            sb.append(sequence).append(' ').append(i).append(" é\n");
+        }
+        return sb.toString();
+    }
+
+    private void print(int sequence) {
+        ordered.begin(sequence);
+        String s = chunk(sequence);
+        int half = s.length() / 2;
+        ordered.output().print(s.substring(0, half));
+        ordered.printStream().print(s.substring(half));
+        ordered.end();
+    }
+
+    @Test
+    void chunksInOrderWithSeveralThreads() throws Exception {
+        List<Integer> sequences = new ArrayList<>();
+        StringBuilder expected = new StringBuilder("before\n");
+        for (int i = 0; i < 500; i++) {
+            sequences.add(i);
+            expected.append(chunk(i));
+        }
+        expected.append("after\n");
+        Collections.shuffle(sequences, new Random(20));
+        ordered.output().print("before\n");
+        ExecutorService threads = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int sequence : sequences) {
+                tasks.add(threads.submit(() -> print(sequence)));
+            }
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        } finally {
+            threads.shutdown();
+        }
+        ordered.output().print("after\n");
+        assertEquals(expected.toString(), merged());
+    }
+
+    @Test
+    void chunksWaitForLowerNumbers() {
+        print(2);
+        print(1);
+        assertEquals("", merged());
+        print(0);
+        assertEquals(chunk(0) + chunk(1) + chunk(2), merged());
+        print(4);
+        ordered.reset();
+        assertEquals(chunk(0) + chunk(1) + chunk(2) + chunk(4), merged());
+        print(0);
+        assertEquals(chunk(0) + chunk(1) + chunk(2) + chunk(4) + chunk(0), merged());
+    }
+
+    @Test
+    void misuse() {
+        assertThrows(IllegalArgumentException.class, () -> ordered.begin(-1));
+        assertThrows(IllegalStateException.class, ordered::end);
+        ordered.begin(0);
+        assertThrows(IllegalStateException.class, () -> ordered.begin(1));
+        ordered.end();
+        ordered.begin(0);
+        assertThrows(IllegalStateException.class, ordered::end);
+        ordered.begin(3);
+        ordered.end();
+        ordered.begin(3);
+        assertThrows(IllegalStateException.class, ordered::end);
+    }
+}
@@ -0,0 +1,111 @@
+package io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests of {@link io#readAll(java.util.Collection, int, FileHandler)}.
+ *
+ * @author pedro
+ */
+class ParallelReaderTest {
+
+    @TempDir
+    Path dir;
+
+    /**
+     * Writes files whose i-th one holds the numbers from 0 to i.
+     */
+    private List<Path> files(int n) throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            StringBuilder sb = new StringBuilder();
+            for (int k = 0; k <= i; k++) {
+                sb.append(k).append('\n');
+            }
+            Path file = dir.resolve("file" + i + ".txt");
+            Files.write(file, sb.toString().getBytes(StandardCharsets.US_ASCII));
+            files.add(file);
+        }
+        return files;
+    }
+
+    @Test
+    void resultsInOrderOfFiles() throws Exception {
+        List<Path> files = files(40);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger most = new AtomicInteger();
+        List<Long> sums = io.readAll(files, 3, (path, in) -> {
+            most.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                // so that files end out of order
+                int i = files.indexOf(path);
+                Thread.sleep(i % 3 == 0 ? 20 : 1);
+                return in.longs().sum();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            } finally {
+                running.decrementAndGet();
+            }
+        });
+        List<Long> expected = new ArrayList<>();
+        for (long i = 0; i < files.size(); i++) {
+            expected.add(i * (i + 1) / 2);
+        }
+        assertEquals(expected, sums);
+        assertTrue(most.get() <= 3, "at most 3 files at a time");
+        assertEquals(List.of(), io.readAll(List.of(), 3, (path, in) -> 0));
+    }
+
+    @Test
+    void noFileOpenedAfterFailure() throws IOException {
+        List<Path> files = files(10);
+        AtomicInteger handled = new AtomicInteger();
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> io.readAll(files, 1, (path, in) -> {
+                    if (handled.incrementAndGet() == 3) {
+                        throw new IllegalStateException(path.toString());
+                    }
+                    return in.nextInt();
+                }));
+        assertEquals(files.get(2).toString(), e.getMessage());
+        assertEquals(3, handled.get());
+    }
+
+    @Test
+    void missingFile() throws IOException {
+        List<Path> files = files(5);
+        files.add(2, dir.resolve("missing.txt"));
+        assertThrows(NoSuchFileException.class, () -> io.readAll(files, 2, (path, in) -> in.nextInt()));
+    }
+
+    @Test
+    void laterFailuresSuppressed() throws IOException {
+        List<Path> files = files(3);
+        CountDownLatch started = new CountDownLatch(3);
+        IOException e = assertThrows(IOException.class, () -> io.readAll(files, 3, (path, in) -> {
+            started.countDown();
+            try {
+                started.await();
+            } catch (InterruptedException x) {
+                throw new IllegalStateException(x);
+            }
+            throw new IOException(path.toString());
+        }));
+        assertEquals(2, e.getSuppressed().length);
+        assertThrows(IllegalArgumentException.class, () -> io.readAll(files, 0, (path, in) -> 0));
+    }
+}
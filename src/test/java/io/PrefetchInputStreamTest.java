@@ -0,0 +1,168 @@
+package io;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of {@link PrefetchInputStream}, read as a stream and parsed in place
+ * by {@link FastInput}, with buffers smaller and larger than the tokens and
+ * lines split between them.
+ *
+ * @author pedro
+ */
+class PrefetchInputStreamTest {
+
+    private static final int[] SIZES = {1, 5, 100, PrefetchInputStream.HEADROOM + 7, 1 << 16};
+
+    private static FastInput prefetched(byte[] b, int size) {
+        return new FastInput(new PrefetchInputStream(new FastInputTest.Trickle(b), 3, size), Charset.defaultCharset());
+    }
+
+    /**
+     * Returns lines of words and numbers, some of them longer than the room
+     * in front of a buffer.
+     */
+    private static byte[] text() {
+        Random random = new Random(24);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 300; i++) {
+            int words = random.nextInt(10) == 0 ? 1000 : random.nextInt(8);
+            for (int k = 0; k < words; k++) {
+                sb.append(k == 0 ? "" : " ");
+                if (random.nextInt(1000) == 0) {
+                    sb.append("9".repeat(PrefetchInputStream.HEADROOM + random.nextInt(3000)));
+                } else {
+                    sb.append(random.nextInt(2000) - 1000);
+                }
+            }
+            sb.append(random.nextBoolean() ? "\n" : "\r\n");
+        }
+        return sb.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Returns the value read, or the class of the exception thrown.
+     */
+    private static Object result(Callable<Object> call) {
+        try {
+            return call.call();
+        } catch (Exception e) {
+            return e.getClass();
+        }
+    }
+
+    @Test
+    void tokensAndLinesParsedInPlace() {
+        byte[] text = text();
+        for (int size : SIZES) {
+            Random random = new Random(size);
+            try (FastInput expected = io.of(new ByteArrayInputStream(text)); FastInput in = prefetched(text, size)) {
+                for (int i = 0; expected.hasNext(); i++) {
+                    switch (random.nextInt(4)) {
+                        case 0:
+                            assertEquals(result(expected::nextLine), result(in::nextLine), size + ":" + i);
+                            break;
+                        case 1:
+                            assertEquals(result(expected::nextBigInteger), result(in::nextBigInteger), size + ":" + i);
+                            break;
+                        case 2:
+                            assertEquals(result(expected::nextInt), result(in::nextInt), size + ":" + i);
+                            break;
+                        default:
+                            assertEquals(expected.next(), in.next(), size + ":" + i);
+                    }
+                }
+                assertEquals(false, in.hasNext());
+                assertEquals(null, in.ioException());
+            }
+        }
+    }
+
+    @Test
+    void restHandedOverAfterSomeBlocks() throws IOException {
+        byte[] text = text();
+        for (int size : SIZES) {
+            try (FastInput expected = io.of(new ByteArrayInputStream(text)); FastInput in = prefetched(text, size)) {
+                for (int i = 0; i < 500; i++) {
+                    assertEquals(expected.next(), in.next());
+                }
+                assertArrayEquals(expected.remaining().readAllBytes(), in.remaining().readAllBytes());
+            }
+        }
+    }
+
+    @Test
+    void readAsStream() throws IOException {
+        byte[] text = text();
+        for (int size : SIZES) {
+            try (InputStream in = new PrefetchInputStream(new FastInputTest.Trickle(text), 2, size)) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                out.write(in.read());
+                byte[] b = new byte[size + 3];
+                for (int n; (n = in.read(b, 1, size + 2)) >= 0;) {
+                    out.write(b, 1, n);
+                }
+                assertArrayEquals(text, out.toByteArray());
+                assertEquals(-1, in.read());
+            }
+        }
+        assertThrows(IllegalArgumentException.class, () -> new PrefetchInputStream(InputStream.nullInputStream(), 1, 8));
+        assertThrows(IllegalArgumentException.class, () -> new PrefetchInputStream(InputStream.nullInputStream(), 2, 0));
+    }
+
+    @Test
+    void errorAfterTheBytesReadBeforeIt() {
+        InputStream failing = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("source failed");
+            }
+        };
+        InputStream source = new SequenceInputStream(new ByteArrayInputStream("1 2 3".getBytes(StandardCharsets.US_ASCII)),
+                failing);
+        try (FastInput in = new FastInput(new PrefetchInputStream(source, 2, 2), Charset.defaultCharset())) {
+            assertEquals(6, in.nextInt() + in.nextInt() + in.nextInt());
+            assertEquals(false, in.hasNext());
+            assertEquals("source failed", in.ioException().getMessage());
+        }
+    }
+
+    @Test
+    void interruptIsNotEndOfInput() throws IOException {
+        PipedOutputStream pipe = new PipedOutputStream();
+        PipedInputStream source = new PipedInputStream(pipe);
+        pipe.write("1 2 ".getBytes(StandardCharsets.US_ASCII));
+        try (FastInput in = new FastInput(new PrefetchInputStream(source, 2, 8), Charset.defaultCharset())) {
+            assertEquals(1, in.nextInt());
+            assertEquals(2, in.nextInt());
+            // the next token is not there yet, so the call waits for it
+            Thread.currentThread().interrupt();
+            UncheckedIOException e = assertThrows(UncheckedIOException.class, in::nextInt);
+            assertTrue(e.getCause() instanceof InterruptedIOException);
+            assertTrue(Thread.interrupted());
+            assertEquals(null, in.ioException());
+            pipe.write("34 5".getBytes(StandardCharsets.US_ASCII));
+            pipe.close();
+            assertEquals(34, in.nextInt());
+            assertEquals(5, in.nextInt());
+            assertEquals(false, in.hasNext());
+        }
+    }
+}